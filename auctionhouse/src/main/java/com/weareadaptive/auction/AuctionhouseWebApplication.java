@@ -2,8 +2,10 @@ package com.weareadaptive.auction;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class AuctionhouseWebApplication {
 
   public static void main(String[] args) {
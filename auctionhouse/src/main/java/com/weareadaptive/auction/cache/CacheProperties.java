@@ -0,0 +1,17 @@
+package com.weareadaptive.auction.cache;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Size of the in-process entity caches, and the Postgres channel nodes use to tell each other
+ * which entries to evict. Invalidations raised within the coalescing window share one message.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.cache")
+public record CacheProperties(@DefaultValue("10000") int maxSize,
+                              @DefaultValue("auction_cache_invalidation") String channel,
+                              @DefaultValue("20ms") Duration coalesceWindow) {
+}
@@ -0,0 +1,108 @@
+package com.weareadaptive.auction.cache;
+
+import com.weareadaptive.auction.datasource.ReadWriteRouting;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.User;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process caches of users by username and of lots by id. A change evicts the local entry
+ * straight away and, once committed, is announced to the other nodes through the
+ * {@link InvalidationChannel} when there is one. Messages are the entity kind followed by its
+ * id, such as {@code u12} for a user or {@code a34} for a lot. Rows read while the request is
+ * routed to the replica may be stale, so they are returned but not cached. Lots are returned as
+ * copies, so that a caller changing one does not change what other requests read. Users are
+ * indexed by id, as invalidations name the id rather than the username.
+ */
+@Component
+public class EntityCache {
+  private static final char USER = 'u';
+  private static final char AUCTION_LOT = 'a';
+
+  private final LocalCache<String, User> usersByName;
+  private final LocalCache<Integer, AuctionLot> auctionLots;
+  private final InvalidationChannel channel;
+  private final ReadWriteRouting routing;
+
+  public EntityCache(CacheProperties properties, ObjectProvider<InvalidationChannel> channel,
+                     ObjectProvider<ReadWriteRouting> routing) {
+    this.usersByName = new LocalCache<>(properties.maxSize(), User::getId);
+    this.auctionLots = new LocalCache<>(properties.maxSize());
+    this.routing = routing.getIfAvailable();
+    this.channel = channel.getIfAvailable();
+    if (this.channel != null) {
+      this.channel.subscribe(this::onInvalidation);
+    }
+  }
+
+  public User findUser(String username, Function<String, User> loader) {
+    return onReplica()
+        ? usersByName.getWithoutCaching(username, loader)
+        : usersByName.get(username, loader);
+  }
+
+  public Optional<AuctionLot> findAuctionLot(int id,
+                                             Function<Integer, Optional<AuctionLot>> loader) {
+    Function<Integer, AuctionLot> load = key -> loader.apply(key).orElse(null);
+    return Optional.ofNullable(onReplica()
+        ? auctionLots.getWithoutCaching(id, load)
+        : auctionLots.get(id, load))
+        .map(AuctionLot::copy);
+  }
+
+  public void userChanged(int id) {
+    evictUser(id);
+    publish(USER + String.valueOf(id));
+  }
+
+  public void auctionLotChanged(int id) {
+    auctionLots.evict(id);
+    publish(AUCTION_LOT + String.valueOf(id));
+  }
+
+  public void clear() {
+    usersByName.clear();
+    auctionLots.clear();
+  }
+
+  void onInvalidation(String message) {
+    for (String key : message.split(",")) {
+      if (key.equals(InvalidationChannel.ALL)) {
+        clear();
+      } else if (key.length() > 1 && key.charAt(0) == USER) {
+        evictUser(Integer.parseInt(key, 1, key.length(), 10));
+      } else if (key.length() > 1 && key.charAt(0) == AUCTION_LOT) {
+        auctionLots.evict(Integer.parseInt(key, 1, key.length(), 10));
+      }
+    }
+  }
+
+  private boolean onReplica() {
+    return routing != null && routing.isReplica();
+  }
+
+  private void evictUser(int id) {
+    usersByName.evictIndexed(id);
+  }
+
+  private void publish(String key) {
+    if (channel == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      channel.publish(key);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        channel.publish(key);
+      }
+    });
+  }
+}
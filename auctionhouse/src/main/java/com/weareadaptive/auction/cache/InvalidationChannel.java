@@ -0,0 +1,152 @@
+package com.weareadaptive.auction.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache invalidations shared between nodes over Postgres LISTEN/NOTIFY. Published keys are
+ * collected for a short window and sent as one comma separated notification, so a burst of
+ * writes to the same entities costs a single message. One pooled connection is held to listen.
+ * Notifications sent while it is reconnecting are lost, so subscribers are told to drop
+ * everything, with {@link #ALL}, whenever listening starts.
+ */
+@Component
+@Profile("!in-memory")
+public class InvalidationChannel {
+  public static final String ALL = "*";
+  private static final Logger LOGGER = LoggerFactory.getLogger(InvalidationChannel.class);
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+  // Postgres rejects payloads of 8000 bytes or more.
+  private static final int MAX_PAYLOAD_LENGTH = 7_900;
+  private static final int POLL_MILLIS = 500;
+  private static final long RETRY_MILLIS = 1_000;
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final CacheProperties properties;
+  private final Set<String> pending = ConcurrentHashMap.newKeySet();
+  private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService publisher;
+  private final Thread listener;
+  private volatile boolean running = true;
+
+  public InvalidationChannel(DataSource dataSource, CacheProperties properties) {
+    if (!CHANNEL_NAME.matcher(properties.channel()).matches()) {
+      throw new IllegalArgumentException("Invalid channel name " + properties.channel());
+    }
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.properties = properties;
+    this.publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "cache-invalidation-publisher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.listener = new Thread(this::listen, "cache-invalidation-listener");
+    this.listener.setDaemon(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    var window = properties.coalesceWindow().toMillis();
+    publisher.scheduleWithFixedDelay(this::flush, window, window, TimeUnit.MILLISECONDS);
+    listener.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    listener.interrupt();
+    publisher.shutdown();
+    flush();
+  }
+
+  public void subscribe(Consumer<String> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  public void publish(String key) {
+    pending.add(key);
+  }
+
+  void flush() {
+    var payload = new StringBuilder();
+    for (var iterator = pending.iterator(); iterator.hasNext(); ) {
+      var key = iterator.next();
+      iterator.remove();
+      if (payload.length() + key.length() + 1 > MAX_PAYLOAD_LENGTH) {
+        send(payload.toString());
+        payload.setLength(0);
+      }
+      payload.append(payload.length() == 0 ? "" : ",").append(key);
+    }
+    if (payload.length() > 0) {
+      send(payload.toString());
+    }
+  }
+
+  private void send(String payload) {
+    try {
+      jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", properties.channel(), payload);
+    } catch (DataAccessException e) {
+      LOGGER.warn("Failed to publish cache invalidations, retrying", e);
+      pending.addAll(List.of(payload.split(",")));
+    }
+  }
+
+  private void listen() {
+    while (running) {
+      try (var connection = dataSource.getConnection();
+           var statement = connection.createStatement()) {
+        statement.execute("LISTEN " + properties.channel());
+        deliver(ALL);
+        var notifications = connection.unwrap(PGConnection.class);
+        while (running) {
+          var received = notifications.getNotifications(POLL_MILLIS);
+          if (received != null) {
+            for (var notification : received) {
+              deliver(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (running) {
+          LOGGER.warn("Lost the cache invalidation channel, reconnecting", e);
+          pause();
+        }
+      }
+    }
+  }
+
+  private void deliver(String message) {
+    subscribers.forEach(subscriber -> subscriber.accept(message));
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(RETRY_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.weareadaptive.auction.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Lock-free map of loaded values. Misses are not cached, and once full the cache is emptied
+ * rather than tracking recency, which keeps hits free of bookkeeping. A value loaded while an
+ * eviction happens is returned but not cached, as it may predate the change being evicted.
+ *
+ * <p>Values can also be indexed by a second key taken from the value, such as a user's id for
+ * users cached by name, so that {@link #evictIndexed} finds their entries without a scan.
+ */
+public class LocalCache<K, V> {
+  private final Map<K, V> values = new ConcurrentHashMap<>();
+  private final Map<Object, Set<K>> keysByIndex = new ConcurrentHashMap<>();
+  private final AtomicLong evictions = new AtomicLong();
+  private final int maxSize;
+  private final Function<V, ?> index;
+
+  public LocalCache(int maxSize) {
+    this(maxSize, null);
+  }
+
+  public LocalCache(int maxSize, Function<V, ?> index) {
+    this.maxSize = maxSize;
+    this.index = index;
+  }
+
+  public V get(K key, Function<K, V> loader) {
+    var value = values.get(key);
+    if (value != null) {
+      return value;
+    }
+    var evictionsBefore = evictions.get();
+    value = loader.apply(key);
+    if (value != null && evictions.get() == evictionsBefore) {
+      if (values.size() >= maxSize) {
+        values.clear();
+        keysByIndex.clear();
+      }
+      if (index != null) {
+        keysByIndex.computeIfAbsent(index.apply(value), i -> ConcurrentHashMap.newKeySet())
+            .add(key);
+      }
+      values.put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the cached value, or loads one without caching it.
+   */
+  public V getWithoutCaching(K key, Function<K, V> loader) {
+    var value = values.get(key);
+    return value != null ? value : loader.apply(key);
+  }
+
+  public void evict(K key) {
+    evictions.incrementAndGet();
+    var value = values.remove(key);
+    if (value != null && index != null) {
+      keysByIndex.computeIfPresent(index.apply(value), (i, keys) -> {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+      });
+    }
+  }
+
+  /**
+   * Evicts every entry whose value has the given index key.
+   */
+  public void evictIndexed(Object indexKey) {
+    evictions.incrementAndGet();
+    var keys = keysByIndex.remove(indexKey);
+    if (keys != null) {
+      keys.forEach(values::remove);
+    }
+  }
+
+  public void clear() {
+    evictions.incrementAndGet();
+    values.clear();
+    keysByIndex.clear();
+  }
+
+  public int size() {
+    return values.size();
+  }
+}
@@ -0,0 +1,36 @@
+package com.weareadaptive.auction.cluster;
+
+import com.weareadaptive.auction.service.OrganisationStatistics;
+import com.weareadaptive.auction.service.SymbolIndex;
+import com.weareadaptive.auction.service.SymbolStatistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "auction.cluster", name = "nodes")
+public class ClusterConfiguration {
+  @Bean
+  public ClusterMembership clusterMembership(ClusterProperties clusterProperties) {
+    return new ClusterMembership(clusterProperties.nodes(), clusterProperties.self());
+  }
+
+  @Bean
+  public ForwardingFilter forwardingFilter(ClusterMembership clusterMembership,
+                                           ClusterProperties clusterProperties) {
+    var secret = clusterProperties.secret();
+    if (secret == null || secret.isBlank()) {
+      throw new IllegalStateException("Cluster mode requires auction.cluster.secret");
+    }
+    return new ForwardingFilter(clusterMembership, secret, clusterProperties.forwardTimeout());
+  }
+
+  @Bean
+  public StatisticsRefresher statisticsRefresher(SymbolIndex symbolIndex,
+                                                 SymbolStatistics symbolStatistics,
+                                                 OrganisationStatistics organisationStatistics,
+                                                 ClusterProperties clusterProperties) {
+    return new StatisticsRefresher(symbolIndex, symbolStatistics, organisationStatistics,
+        clusterProperties.statisticsRefresh());
+  }
+}
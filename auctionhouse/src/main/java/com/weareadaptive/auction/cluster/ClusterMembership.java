@@ -0,0 +1,36 @@
+package com.weareadaptive.auction.cluster;
+
+import java.util.List;
+
+/**
+ * Maps each auction to the node owning it. Every node computes the same owner from the same node
+ * list, so commands for one lot are all applied on one node, in arrival order there.
+ */
+public class ClusterMembership {
+  private final List<String> nodes;
+  private final int self;
+
+  public ClusterMembership(List<String> nodes, int self) {
+    if (self < 0 || self >= nodes.size()) {
+      throw new IllegalArgumentException("self must be an index of the node list");
+    }
+    this.nodes = List.copyOf(nodes);
+    this.self = self;
+  }
+
+  public int getSelf() {
+    return self;
+  }
+
+  public int ownerOf(int auctionId) {
+    return Math.floorMod(auctionId * 0x9E3779B9, nodes.size());
+  }
+
+  public boolean isOwner(int auctionId) {
+    return ownerOf(auctionId) == self;
+  }
+
+  public String getNode(int node) {
+    return nodes.get(node);
+  }
+}
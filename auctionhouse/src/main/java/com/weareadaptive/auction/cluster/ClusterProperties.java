@@ -0,0 +1,22 @@
+package com.weareadaptive.auction.cluster;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Static cluster membership: the base url of every node, the same list on each node, and the
+ * index of this node in it. Cluster mode is only enabled when nodes are listed. The secret,
+ * shared by all nodes, signs forwarded requests. Per node read models are rebuilt from the
+ * database every statistics refresh.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.cluster")
+public record ClusterProperties(List<String> nodes,
+                                @DefaultValue("0") int self,
+                                String secret,
+                                @DefaultValue("2s") Duration forwardTimeout,
+                                @DefaultValue("10s") Duration statisticsRefresh) {
+}
@@ -0,0 +1,153 @@
+package com.weareadaptive.auction.cluster;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sends bids, closes and indicative price reads for a lot owned by another node to that node and
+ * relays its response. A forwarded request is always handled where it lands, so a node list
+ * that differs between nodes cannot make requests bounce. The forwarding node signs the request
+ * with the cluster secret, and a forwarded-by header without a valid signature is ignored, so
+ * clients cannot claim a request was forwarded. End to end headers are relayed both ways.
+ */
+public class ForwardingFilter extends OncePerRequestFilter {
+  public static final String FORWARDED_BY = "X-Auction-Forwarded-By";
+  public static final String HANDLED_BY = "X-Auction-Node";
+  private static final Pattern LOT_COMMAND =
+      Pattern.compile("/auctions/(\\d{1,9})/(bid|close|indicative)");
+  private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+  // Hop by hop headers, plus those the HTTP client sets itself.
+  private static final Set<String> UNRELAYED_HEADERS = Set.of(
+      "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+      "transfer-encoding", "upgrade", "content-length", "host", "expect", "date", "from", "via",
+      "warning", FORWARDED_BY.toLowerCase(Locale.ROOT));
+
+  private final ClusterMembership membership;
+  private final SecretKeySpec secret;
+  private final Duration timeout;
+  private final HttpClient httpClient;
+
+  public ForwardingFilter(ClusterMembership membership, String secret, Duration timeout) {
+    this.membership = membership;
+    this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+    this.timeout = timeout;
+    this.httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(timeout)
+        .build();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    var path = request.getRequestURI().substring(request.getContextPath().length());
+    var matcher = LOT_COMMAND.matcher(path);
+    if (isForwarded(request) || !matcher.matches()) {
+      response.setHeader(HANDLED_BY, String.valueOf(membership.getSelf()));
+      filterChain.doFilter(request, response);
+      return;
+    }
+    var owner = membership.ownerOf(Integer.parseInt(matcher.group(1)));
+    if (owner == membership.getSelf()) {
+      response.setHeader(HANDLED_BY, String.valueOf(owner));
+      filterChain.doFilter(request, response);
+      return;
+    }
+    forward(request, response, owner);
+  }
+
+  private void forward(HttpServletRequest request, HttpServletResponse response, int owner)
+      throws IOException {
+    var query = request.getQueryString() == null ? "" : "?" + request.getQueryString();
+    var body = request.getInputStream().readAllBytes();
+    var forwarded = HttpRequest.newBuilder(
+            URI.create(membership.getNode(owner) + request.getRequestURI() + query))
+        .timeout(timeout)
+        .method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(body))
+        .header(FORWARDED_BY, membership.getSelf() + ":" + sign(membership.getSelf(), request));
+    for (String header : Collections.list(request.getHeaderNames())) {
+      if (isRelayed(header)) {
+        for (String value : Collections.list(request.getHeaders(header))) {
+          forwarded.header(header, value);
+        }
+      }
+    }
+
+    HttpResponse<byte[]> ownerResponse;
+    try {
+      ownerResponse = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+      return;
+    } catch (IOException e) {
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+          "Owner node " + owner + " is unreachable");
+      return;
+    }
+
+    response.setStatus(ownerResponse.statusCode());
+    ownerResponse.headers().map().forEach((header, values) -> {
+      if (isRelayed(header) && !values.isEmpty()) {
+        response.setHeader(header, values.get(0));
+        values.stream().skip(1).forEach(value -> response.addHeader(header, value));
+      }
+    });
+    response.getOutputStream().write(ownerResponse.body());
+  }
+
+  private boolean isForwarded(HttpServletRequest request) {
+    var header = request.getHeader(FORWARDED_BY);
+    var separator = header == null ? -1 : header.indexOf(':');
+    if (separator < 1) {
+      return false;
+    }
+    int node;
+    try {
+      node = Integer.parseInt(header.substring(0, separator));
+    } catch (NumberFormatException e) {
+      return false;
+    }
+    return MessageDigest.isEqual(
+        sign(node, request).getBytes(StandardCharsets.US_ASCII),
+        header.substring(separator + 1).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private String sign(int node, HttpServletRequest request) {
+    var query = request.getQueryString() == null ? "" : "?" + request.getQueryString();
+    var signed = node + " " + request.getMethod() + " " + request.getRequestURI() + query;
+    try {
+      var mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+      mac.init(secret);
+      return Base64.getUrlEncoder().withoutPadding()
+          .encodeToString(mac.doFinal(signed.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot sign forwarded request", e);
+    }
+  }
+
+  private static boolean isRelayed(String header) {
+    return !header.startsWith(":") && !UNRELAYED_HEADERS.contains(header.toLowerCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,63 @@
+package com.weareadaptive.auction.cluster;
+
+import com.weareadaptive.auction.service.OrganisationStatistics;
+import com.weareadaptive.auction.service.SymbolIndex;
+import com.weareadaptive.auction.service.SymbolStatistics;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Rebuilds the read models kept in memory from the database. A node only applies the changes it
+ * serves to them, so in a cluster they miss the changes served by other nodes until the next
+ * rebuild, at most one interval later.
+ */
+public class StatisticsRefresher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsRefresher.class);
+
+  private final SymbolIndex symbolIndex;
+  private final SymbolStatistics symbolStatistics;
+  private final OrganisationStatistics organisationStatistics;
+  private final Duration interval;
+  private final ScheduledExecutorService scheduler;
+
+  public StatisticsRefresher(SymbolIndex symbolIndex, SymbolStatistics symbolStatistics,
+                             OrganisationStatistics organisationStatistics, Duration interval) {
+    this.symbolIndex = symbolIndex;
+    this.symbolStatistics = symbolStatistics;
+    this.organisationStatistics = organisationStatistics;
+    this.interval = interval;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "statistics-refresher");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    var millis = interval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::refresh, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    scheduler.shutdownNow();
+  }
+
+  public void refresh() {
+    try {
+      symbolIndex.load();
+      symbolStatistics.rebuild();
+      organisationStatistics.rebuild();
+    } catch (RuntimeException e) {
+      LOGGER.warn("Refreshing statistics failed", e);
+    }
+  }
+}
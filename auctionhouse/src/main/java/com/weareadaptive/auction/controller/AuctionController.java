@@ -1,6 +1,7 @@
 package com.weareadaptive.auction.controller;
 
 import com.weareadaptive.auction.controller.dto.AuctionBasicResponse;
+import com.weareadaptive.auction.controller.dto.AuctionChangesResponse;
 import com.weareadaptive.auction.controller.dto.AuctionMapper;
 import com.weareadaptive.auction.controller.dto.AuctionResponse;
 import com.weareadaptive.auction.controller.dto.BidAuctionRequest;
@@ -8,19 +9,26 @@ import com.weareadaptive.auction.controller.dto.BidInfo;
 import com.weareadaptive.auction.controller.dto.CreateAuctionRequest;
 import com.weareadaptive.auction.controller.dto.NewBidResponse;
 import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotView;
 import com.weareadaptive.auction.model.ClosingSummary;
+import com.weareadaptive.auction.model.IndicativePrice;
 import com.weareadaptive.auction.service.AuctionLotService;
 import java.security.Principal;
-import java.util.ArrayList;
 import java.util.List;
 import javax.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -43,7 +51,9 @@ public class AuctionController {
         principal.getName(),
         createAuctionRequest.symbol(),
         createAuctionRequest.minPrice(),
-        createAuctionRequest.quantity());
+        createAuctionRequest.quantity(),
+        createAuctionRequest.clearingMode(),
+        createAuctionRequest.rejectNonCompetitive());
     return new AuctionResponse(auctionLot, null);
   }
 
@@ -56,10 +66,54 @@ public class AuctionController {
 
   @GetMapping()
   List<AuctionBasicResponse> getAll(Principal principal) {
-    var auctionLots = auctionLotService.getAll();
-    List<AuctionBasicResponse> responses = new ArrayList<>();
-    auctionLots.forEach(auctionLot -> responses.add(getAuctionResponse(auctionLot, principal)));
-    return responses;
+    return auctionLotService.getListings(principal).stream()
+        .map(listing -> listing.owned()
+            ? new AuctionResponse(listing.lot(), listing.bids())
+            : new AuctionBasicResponse(listing.lot(),
+                listing.bids().isEmpty() ? null : listing.bids().get(0)))
+        .toList();
+  }
+
+  /**
+   * The ETag is the version to read the next changes from, so a client may also send it back in
+   * If-None-Match.
+   */
+  @GetMapping(params = "sinceVersion")
+  ResponseEntity<AuctionChangesResponse> getChanges(
+      @RequestParam long sinceVersion,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      Principal principal) {
+    var since = Math.max(sinceVersion, parseVersionTag(ifNoneMatch));
+    var changes = auctionLotService.getChangesSince(since, principal);
+    var etag = "\"" + changes.version() + "\"";
+
+    if (changes.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).body(AuctionMapper.mapChanges(changes));
+  }
+
+  private static long parseVersionTag(String ifNoneMatch) {
+    if (ifNoneMatch == null) {
+      return 0;
+    }
+    var tag = ifNoneMatch.trim();
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    try {
+      return Long.parseLong(tag.replace("\"", ""));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  @GetMapping("/search")
+  List<AuctionBasicResponse> search(@RequestParam String symbol,
+                                    @RequestParam(required = false) AuctionLot.Status status) {
+    return auctionLotService.search(symbol, status).stream()
+        .map(auctionLot -> new AuctionBasicResponse(auctionLot, null))
+        .toList();
   }
 
   private AuctionBasicResponse getAuctionResponse(AuctionLot auctionLot, Principal principal) {
@@ -69,7 +123,7 @@ public class AuctionController {
           auctionLotService.getAllBids(auctionLot.getId(), principal));
     } else {
       return new AuctionBasicResponse(
-          auctionLot,
+          AuctionLotView.of(auctionLot),
           auctionLotService.getBidByBidder(auctionLot.getId(), principal).orElse(null));
     }
   }
@@ -85,9 +139,31 @@ public class AuctionController {
         principal.getName());
   }
 
+  @PutMapping("/{id}/bid")
+  NewBidResponse amendBid(@PathVariable int id,
+                          @RequestBody @Valid BidAuctionRequest bidAuctionRequest,
+                          Principal principal) {
+    return auctionLotService.amendBid(
+        id,
+        bidAuctionRequest.quantity(),
+        bidAuctionRequest.price(),
+        principal.getName());
+  }
+
+  @DeleteMapping("/{id}/bid")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  void cancelBid(@PathVariable int id, Principal principal) {
+    auctionLotService.cancelBid(id, principal.getName());
+  }
+
+  @GetMapping("/{id}/indicative")
+  IndicativePrice getIndicativePrice(@PathVariable int id) {
+    return auctionLotService.getIndicativePrice(id);
+  }
+
   @GetMapping("/{id}/all-bids")
   List<BidInfo> getBids(@PathVariable int id, Principal principal) {
-    return AuctionMapper.mapAllBids(auctionLotService.getAllBids(id, principal));
+    return AuctionMapper.mapAllBidViews(auctionLotService.getAllBids(id, principal));
   }
 
   @PostMapping("/{id}/close")
@@ -0,0 +1,33 @@
+package com.weareadaptive.auction.controller;
+
+import com.weareadaptive.auction.model.ObjectNotFoundException;
+import com.weareadaptive.auction.model.OrganisationDetails;
+import com.weareadaptive.auction.service.OrganisationStatistics;
+import java.util.List;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/organisations")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class OrganisationController {
+  private final OrganisationStatistics organisationStatistics;
+
+  public OrganisationController(OrganisationStatistics organisationStatistics) {
+    this.organisationStatistics = organisationStatistics;
+  }
+
+  @GetMapping
+  List<OrganisationDetails> getAll() {
+    return organisationStatistics.getAll();
+  }
+
+  @GetMapping("/{name}")
+  OrganisationDetails getByName(@PathVariable String name) {
+    return organisationStatistics.get(name).orElseThrow(() ->
+        new ObjectNotFoundException("Organisation " + name + " doesn't exist"));
+  }
+}
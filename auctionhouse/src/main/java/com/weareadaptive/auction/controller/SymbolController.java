@@ -0,0 +1,27 @@
+package com.weareadaptive.auction.controller;
+
+import com.weareadaptive.auction.controller.dto.SymbolStatsResponse;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.service.SymbolStatistics;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/symbols")
+@PreAuthorize("hasRole('ROLE_USER')")
+public class SymbolController {
+  private final SymbolStatistics symbolStatistics;
+
+  public SymbolController(SymbolStatistics symbolStatistics) {
+    this.symbolStatistics = symbolStatistics;
+  }
+
+  @GetMapping("/{symbol}/stats")
+  SymbolStatsResponse getStats(@PathVariable String symbol) {
+    var normalized = AuctionLot.normalizeSymbol(symbol);
+    return new SymbolStatsResponse(normalized, symbolStatistics.getStats(normalized));
+  }
+}
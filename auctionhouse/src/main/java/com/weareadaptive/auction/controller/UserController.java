@@ -1,14 +1,21 @@
 package com.weareadaptive.auction.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weareadaptive.auction.controller.dto.CreateUserRequest;
 import com.weareadaptive.auction.controller.dto.UpdateUserRequest;
 import com.weareadaptive.auction.controller.dto.UserMapper;
 import com.weareadaptive.auction.controller.dto.UserResponse;
 import com.weareadaptive.auction.model.User;
+import com.weareadaptive.auction.model.UserImportResult;
 import com.weareadaptive.auction.service.UserService;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,18 +23,25 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 
 @RestController
 @RequestMapping("/users")
 @PreAuthorize("hasRole('ROLE_ADMIN')")
 public class UserController {
+  private static final String DEFAULT_PAGE_SIZE = "100";
+  private static final String NDJSON = "application/x-ndjson";
+
   private final UserService userService;
+  private final ObjectMapper objectMapper;
 
-  public UserController(UserService userService) {
+  public UserController(UserService userService, ObjectMapper objectMapper) {
     this.userService = userService;
+    this.objectMapper = objectMapper;
   }
 
   @PostMapping()
@@ -42,14 +56,51 @@ public class UserController {
     return UserMapper.map(user);
   }
 
+  @PostMapping("/bulk")
+  List<UserImportResult> createAll(@RequestBody List<CreateUserRequest> createUserRequests) {
+    return userService.createAll(createUserRequests);
+  }
+
   @GetMapping("/{id}")
   UserResponse getById(@PathVariable int id) {
     return UserMapper.map(userService.getById(id));
   }
 
   @GetMapping
-  ArrayList<UserResponse> getAll() {
-    return UserMapper.mapAll(userService.getAll());
+  ResponseEntity<List<UserResponse>> getAll(
+      @RequestParam(defaultValue = "0") int afterId,
+      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit,
+      @RequestParam(required = false) String organisation,
+      @RequestParam(required = false) Boolean blocked) {
+    var users = userService.getPage(afterId, limit, organisation, blocked);
+    var response = ResponseEntity.ok();
+    if (users.size() == limit) {
+      var next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("afterId", users.get(users.size() - 1).getId())
+          .toUriString();
+      response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+    return response.body(UserMapper.mapAll(users));
+  }
+
+  @GetMapping(value = "/stream", produces = NDJSON)
+  void streamAll(@RequestParam(required = false) String organisation,
+                 @RequestParam(required = false) Boolean blocked,
+                 HttpServletResponse response) throws IOException {
+    response.setContentType(NDJSON);
+    var out = response.getOutputStream();
+    try {
+      userService.forEachUser(organisation, blocked, user -> {
+        try {
+          out.write(objectMapper.writeValueAsBytes(UserMapper.map(user)));
+          out.write('\n');
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
   }
 
   @PutMapping("/{id}")
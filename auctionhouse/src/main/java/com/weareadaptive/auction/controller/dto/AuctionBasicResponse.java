@@ -1,31 +1,36 @@
 package com.weareadaptive.auction.controller.dto;
 
 import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotView;
 import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
 
 public class AuctionBasicResponse {
   private final int id;
   private final String symbol;
   private final double minPrice;
   private final int quantity;
-  private final String status;
-  private Bid bid;
+  private final AuctionLot.Status status;
+  private final AuctionLot.ClearingMode clearingMode;
+  private BidView bid;
 
   public AuctionBasicResponse(int id, String symbol, double minPrice, int quantity,
-                              String status) {
+                              AuctionLot.Status status, AuctionLot.ClearingMode clearingMode) {
     this.id = id;
     this.symbol = symbol;
     this.minPrice = minPrice;
     this.quantity = quantity;
     this.status = status;
+    this.clearingMode = clearingMode;
   }
 
   public AuctionBasicResponse(AuctionLot auctionLot, Bid bid) {
-    this.id = auctionLot.getId();
-    this.symbol = auctionLot.getSymbol();
-    this.minPrice = auctionLot.getMinPrice();
-    this.quantity = auctionLot.getQuantity();
-    this.status = auctionLot.getStatus();
+    this(AuctionLotView.of(auctionLot), bid == null ? null : BidView.of(bid));
+  }
+
+  public AuctionBasicResponse(AuctionLotView auctionLot, BidView bid) {
+    this(auctionLot.id(), auctionLot.symbol(), auctionLot.minPrice(), auctionLot.quantity(),
+        auctionLot.status(), auctionLot.clearingMode());
     this.bid = bid;
   }
 
@@ -45,11 +50,15 @@ public class AuctionBasicResponse {
     return quantity;
   }
 
-  public String getStatus() {
+  public AuctionLot.Status getStatus() {
     return status;
   }
 
-  public Bid getBid() {
+  public AuctionLot.ClearingMode getClearingMode() {
+    return clearingMode;
+  }
+
+  public BidView getBid() {
     return bid;
   }
 }
@@ -0,0 +1,7 @@
+package com.weareadaptive.auction.controller.dto;
+
+import java.util.List;
+
+public record AuctionChangesResponse(long version, List<AuctionBasicResponse> auctions,
+                                     List<BidInfo> bids) {
+}
@@ -1,6 +1,8 @@
 package com.weareadaptive.auction.controller.dto;
 
+import com.weareadaptive.auction.model.AuctionChanges;
 import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
 import java.util.List;
 
 public class AuctionMapper {
@@ -9,9 +11,26 @@ public class AuctionMapper {
   }
 
   public static List<BidInfo> mapAllBids(List<Bid> bids) {
-    return bids.stream().map(bid -> new BidInfo(bid.getUserId(), bid.getQuantity(),
-        bid.getPrice(), bid.getState(), bid.getWinQuantity())).toList();
+    return bids.stream().map(AuctionMapper::mapBid).toList();
   }
 
+  public static List<BidInfo> mapAllBidViews(List<BidView> bids) {
+    return bids.stream()
+        .map(bid -> new BidInfo(bid.auctionId(), bid.userId(), bid.quantity(), bid.price(),
+            bid.state(), bid.winQuantity()))
+        .toList();
+  }
+
+  public static BidInfo mapBid(Bid bid) {
+    return new BidInfo(bid.getAuctionId(), bid.getUserId(), bid.getQuantity(),
+        bid.getPrice(), bid.getState(), bid.getWinQuantity());
+  }
+
+  public static AuctionChangesResponse mapChanges(AuctionChanges changes) {
+    return new AuctionChangesResponse(
+        changes.version(),
+        changes.auctionLots().stream().map(lot -> new AuctionBasicResponse(lot, null)).toList(),
+        mapAllBids(changes.bids()));
+  }
 
 }
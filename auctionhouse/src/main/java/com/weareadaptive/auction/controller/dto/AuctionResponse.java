@@ -1,19 +1,24 @@
 package com.weareadaptive.auction.controller.dto;
 
 import com.weareadaptive.auction.model.AuctionLot;
-import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.AuctionLotView;
+import com.weareadaptive.auction.model.BidView;
 import java.util.List;
 
 public class AuctionResponse extends AuctionBasicResponse {
-  private final List<Bid> bids;
+  private final List<BidView> bids;
 
-  public AuctionResponse(AuctionLot auctionLot, List<Bid> bids) {
-    super(auctionLot.getId(), auctionLot.getSymbol(), auctionLot.getMinPrice(),
-        auctionLot.getQuantity(), auctionLot.getStatus());
+  public AuctionResponse(AuctionLot auctionLot, List<BidView> bids) {
+    this(AuctionLotView.of(auctionLot), bids);
+  }
+
+  public AuctionResponse(AuctionLotView auctionLot, List<BidView> bids) {
+    super(auctionLot.id(), auctionLot.symbol(), auctionLot.minPrice(), auctionLot.quantity(),
+        auctionLot.status(), auctionLot.clearingMode());
     this.bids = bids;
   }
 
-  public List<Bid> getBids() {
+  public List<BidView> getBids() {
     return bids;
   }
 }
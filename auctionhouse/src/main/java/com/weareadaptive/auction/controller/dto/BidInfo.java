@@ -1,6 +1,8 @@
 package com.weareadaptive.auction.controller.dto;
 
-public record BidInfo(int bidderId, int quantity, double price, String state,
+import com.weareadaptive.auction.model.Bid;
+
+public record BidInfo(int auctionId, int bidderId, int quantity, double price, Bid.State state,
                       int winQuantity
 ) {
 }
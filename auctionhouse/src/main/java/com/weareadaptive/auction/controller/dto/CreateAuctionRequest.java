@@ -1,5 +1,6 @@
 package com.weareadaptive.auction.controller.dto;
 
+import com.weareadaptive.auction.model.AuctionLot;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
@@ -15,6 +16,13 @@ public record CreateAuctionRequest(
 
     @NotNull
     @Min(1)
-    int quantity
+    int quantity,
+
+    AuctionLot.ClearingMode clearingMode,
+
+    boolean rejectNonCompetitive
 ) {
+  public CreateAuctionRequest(String symbol, double minPrice, int quantity) {
+    this(symbol, minPrice, quantity, AuctionLot.ClearingMode.PAY_AS_BID, false);
+  }
 }
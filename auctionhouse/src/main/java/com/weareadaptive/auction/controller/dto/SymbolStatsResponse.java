@@ -0,0 +1,7 @@
+package com.weareadaptive.auction.controller.dto;
+
+import com.weareadaptive.auction.model.PriceBucket;
+import java.util.List;
+
+public record SymbolStatsResponse(String symbol, List<PriceBucket> buckets) {
+}
@@ -1,7 +1,6 @@
 package com.weareadaptive.auction.controller.dto;
 
 import com.weareadaptive.auction.model.User;
-import java.util.ArrayList;
 import java.util.List;
 
 public class UserMapper {
@@ -14,7 +13,7 @@ public class UserMapper {
         user.getOrganisation());
   }
 
-  public static ArrayList<UserResponse> mapAll(List<User> users) {
-    return new ArrayList<>(users.stream().map(UserMapper::map).toList());
+  public static List<UserResponse> mapAll(List<User> users) {
+    return users.stream().map(UserMapper::map).toList();
   }
 }
@@ -0,0 +1,61 @@
+package com.weareadaptive.auction.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per thread choice between the primary and the replica, plus the time of the last write of each
+ * user so that reads following a write within the staleness bound stay on the primary. Writes
+ * are only known to the node that served them: a read served by another node within the bound
+ * may still go to the replica. Entries are pruned once past the bound, so the map only holds
+ * users who wrote recently.
+ */
+public class ReadWriteRouting {
+  private final ThreadLocal<Boolean> replica = ThreadLocal.withInitial(() -> false);
+  private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+  private final AtomicLong nextPrune = new AtomicLong(System.nanoTime());
+  private final long maxStalenessNanos;
+
+  public ReadWriteRouting(Duration maxStaleness) {
+    this.maxStalenessNanos = maxStaleness.toNanos();
+  }
+
+  public boolean isReplica() {
+    return replica.get();
+  }
+
+  public void routeToReplica(boolean toReplica) {
+    replica.set(toReplica);
+  }
+
+  public void clear() {
+    replica.remove();
+  }
+
+  public void recordWrite(String username) {
+    var now = System.nanoTime();
+    lastWrites.put(username, now);
+    var pruneAt = nextPrune.get();
+    if (now - pruneAt >= 0 && nextPrune.compareAndSet(pruneAt, now + maxStalenessNanos)) {
+      lastWrites.values().removeIf(lastWrite -> now - lastWrite >= maxStalenessNanos);
+    }
+  }
+
+  public int size() {
+    return lastWrites.size();
+  }
+
+  public boolean wroteRecently(String username) {
+    var lastWrite = lastWrites.get(username);
+    if (lastWrite == null) {
+      return false;
+    }
+    if (System.nanoTime() - lastWrite < maxStalenessNanos) {
+      return true;
+    }
+    lastWrites.remove(username, lastWrite);
+    return false;
+  }
+}
@@ -0,0 +1,63 @@
+package com.weareadaptive.auction.datasource;
+
+import static com.weareadaptive.auction.datasource.ReadWriteRoutingDataSource.PRIMARY;
+import static com.weareadaptive.auction.datasource.ReadWriteRoutingDataSource.REPLICA;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the single pool with a primary and a replica pool behind a routing data source.
+ * The lazy proxy defers picking a pool until the first statement, after the request has been
+ * routed.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auction.datasource.replica", name = "url")
+public class ReadWriteRoutingConfiguration {
+  @Bean
+  public ReadWriteRouting readWriteRouting(ReplicaProperties replicaProperties) {
+    return new ReadWriteRouting(replicaProperties.maxStaleness());
+  }
+
+  @Bean
+  public ReadWriteRoutingFilter readWriteRoutingFilter(ReadWriteRouting readWriteRouting) {
+    return new ReadWriteRoutingFilter(readWriteRouting);
+  }
+
+  @Bean
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public HikariDataSource replicaDataSource(ReplicaProperties replicaProperties) {
+    return DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .url(replicaProperties.url())
+        .username(replicaProperties.username())
+        .password(replicaProperties.password())
+        .build();
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource,
+                               HikariDataSource replicaDataSource,
+                               ReadWriteRouting readWriteRouting) {
+    var routingDataSource = new ReadWriteRoutingDataSource(readWriteRouting);
+    routingDataSource.setTargetDataSources(Map.of(
+        PRIMARY, primaryDataSource,
+        REPLICA, replicaDataSource));
+    routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+    routingDataSource.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
@@ -0,0 +1,19 @@
+package com.weareadaptive.auction.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+  public static final String PRIMARY = "primary";
+  public static final String REPLICA = "replica";
+
+  private final ReadWriteRouting routing;
+
+  public ReadWriteRoutingDataSource(ReadWriteRouting routing) {
+    this.routing = routing;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return routing.isReplica() ? REPLICA : PRIMARY;
+  }
+}
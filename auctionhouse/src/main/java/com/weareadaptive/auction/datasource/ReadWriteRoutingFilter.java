@@ -0,0 +1,40 @@
+package com.weareadaptive.auction.datasource;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Routes GET requests to the replica and everything else to the primary. The whole request uses
+ * one pool because the open session keeps its connection until the response is written. Runs
+ * after authentication, so the credential check always reads the primary.
+ */
+public class ReadWriteRoutingFilter extends OncePerRequestFilter {
+  private final ReadWriteRouting routing;
+
+  public ReadWriteRoutingFilter(ReadWriteRouting routing) {
+    this.routing = routing;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    var principal = request.getUserPrincipal();
+    var username = principal == null ? null : principal.getName();
+    var read = HttpMethod.GET.matches(request.getMethod());
+    routing.routeToReplica(read && (username == null || !routing.wroteRecently(username)));
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      routing.clear();
+      if (!read && username != null) {
+        routing.recordWrite(username);
+      }
+    }
+  }
+}
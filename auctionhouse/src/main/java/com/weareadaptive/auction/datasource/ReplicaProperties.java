@@ -0,0 +1,20 @@
+package com.weareadaptive.auction.datasource;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replica connection. Routing is only enabled when {@code url} is set. {@code maxStaleness}
+ * bounds the replica lag the application tolerates: for that long after a write, the writer's
+ * reads go to the primary. Writes are tracked per node, so this only holds for reads served by
+ * the node that took the write.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.datasource.replica")
+public record ReplicaProperties(String url,
+                                String username,
+                                String password,
+                                @DefaultValue("1s") Duration maxStaleness) {
+}
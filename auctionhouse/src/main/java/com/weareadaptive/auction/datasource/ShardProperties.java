@@ -0,0 +1,16 @@
+package com.weareadaptive.auction.datasource;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * Databases holding auction lots and bids, by shard number. Sharding is only enabled when at
+ * least one shard is listed. Shard 0 also holds the users.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.sharding")
+public record ShardProperties(List<Shard> shards) {
+  public record Shard(String url, String username, String password) {
+  }
+}
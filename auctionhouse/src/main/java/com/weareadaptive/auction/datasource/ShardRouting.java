@@ -0,0 +1,72 @@
+package com.weareadaptive.auction.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shard selected for the current thread. Lot and bid ids encode their shard as the id modulo the
+ * number of shards, so a lot id alone tells where the lot and its bids live.
+ */
+public class ShardRouting {
+  private final ThreadLocal<Integer> current = ThreadLocal.withInitial(() -> 0);
+  private final AtomicInteger nextShard = new AtomicInteger();
+  private final int shardCount;
+  private final ExecutorService executor;
+
+  public ShardRouting(int shardCount) {
+    this.shardCount = shardCount;
+    this.executor = Executors.newFixedThreadPool(shardCount);
+  }
+
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  public int current() {
+    return current.get();
+  }
+
+  public int shardOf(int id) {
+    return Math.floorMod(id, shardCount);
+  }
+
+  /**
+   * Shard for a new lot, assigned round robin.
+   */
+  public int nextShard() {
+    return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+  }
+
+  public <T> T on(int shard, Supplier<T> action) {
+    var previous = current.get();
+    current.set(shard);
+    try {
+      return action.get();
+    } finally {
+      current.set(previous);
+    }
+  }
+
+  /**
+   * Runs the query on every shard in parallel and concatenates the results in shard order.
+   */
+  public <T> List<T> onEach(Supplier<List<T>> query) {
+    var futures = new ArrayList<CompletableFuture<List<T>>>(shardCount);
+    for (int shard = 0; shard < shardCount; shard++) {
+      var target = shard;
+      futures.add(CompletableFuture.supplyAsync(() -> on(target, query), executor));
+    }
+    var results = new ArrayList<T>();
+    futures.forEach(future -> results.addAll(future.join()));
+    return results;
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
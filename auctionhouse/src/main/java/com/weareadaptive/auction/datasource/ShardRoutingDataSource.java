@@ -0,0 +1,28 @@
+package com.weareadaptive.auction.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+  private final ShardRouting routing;
+
+  public ShardRoutingDataSource(ShardRouting routing) {
+    this.routing = routing;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return routing.current();
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (DataSource dataSource : getResolvedDataSources().values()) {
+      if (dataSource instanceof Closeable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
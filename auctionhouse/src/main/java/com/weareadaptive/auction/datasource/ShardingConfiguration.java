@@ -0,0 +1,93 @@
+package com.weareadaptive.auction.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.HashMap;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One pool per shard behind a routing data source. Each shard is migrated on startup and its id
+ * sequences are stepped by the shard count, so that every id it hands out encodes the shard.
+ * The layout is recorded in the shard on first start, and a node configured with a different
+ * layout refuses to start, since ids already handed out would be routed to the wrong shard.
+ *
+ * <p>Repositories switch shard per call, which only works when each call gets its own
+ * connection, hence open session in view must be disabled.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auction.sharding", name = "shards[0].url")
+public class ShardingConfiguration {
+  private static final String[] ID_SEQUENCES = {
+      "auction_lot_id_seq", "auction_bid_id_seq", "auction_version_seq"};
+
+  public ShardingConfiguration(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+    if (openInView) {
+      throw new IllegalStateException("Sharding requires spring.jpa.open-in-view=false");
+    }
+  }
+
+  @Bean
+  public ShardRouting shardRouting(ShardProperties shardProperties) {
+    return new ShardRouting(shardProperties.shards().size());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ShardProperties shardProperties, ShardRouting shardRouting) {
+    var shards = shardProperties.shards();
+    var targets = new HashMap<Object, Object>();
+    for (int shard = 0; shard < shards.size(); shard++) {
+      var dataSource = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .url(shards.get(shard).url())
+          .username(shards.get(shard).username())
+          .password(shards.get(shard).password())
+          .build();
+      Flyway.configure().dataSource(dataSource).load().migrate();
+      encodeShardInIds(dataSource, shard, shards.size());
+      targets.put(shard, dataSource);
+    }
+    var routingDataSource = new ShardRoutingDataSource(shardRouting);
+    routingDataSource.setTargetDataSources(targets);
+    routingDataSource.setDefaultTargetDataSource(targets.get(0));
+    routingDataSource.afterPropertiesSet();
+    return routingDataSource;
+  }
+
+  private static void encodeShardInIds(DataSource dataSource, int shard, int shardCount) {
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.execute("LOCK TABLE shard_layout IN EXCLUSIVE MODE");
+      var layouts = jdbcTemplate.query("SELECT shard, shard_count FROM shard_layout",
+          (rs, rowNum) -> new int[] {rs.getInt("shard"), rs.getInt("shard_count")});
+      if (!layouts.isEmpty()) {
+        var layout = layouts.get(0);
+        if (layout[0] != shard || layout[1] != shardCount) {
+          throw new IllegalStateException(String.format(
+              "Shard %d of %d is configured on a database laid out as shard %d of %d",
+              shard, shardCount, layout[0], layout[1]));
+        }
+        return;
+      }
+      for (String sequence : ID_SEQUENCES) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + shardCount);
+        var last = jdbcTemplate.queryForObject(
+            "SELECT last_value FROM " + sequence, Long.class);
+        var next = last + 1 + Math.floorMod(shard - (last + 1), shardCount);
+        jdbcTemplate.queryForObject("SELECT setval(?, ?, false)", Long.class, sequence, next);
+      }
+      jdbcTemplate.update("INSERT INTO shard_layout (shard, shard_count) VALUES (?, ?)",
+          shard, shardCount);
+    });
+  }
+}
@@ -1,12 +1,14 @@
 package com.weareadaptive.auction.exception;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
 
 import com.weareadaptive.auction.model.BusinessException;
 import com.weareadaptive.auction.model.ObjectNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -67,4 +69,16 @@ public class ExceptionHandlerControllerAdvice {
             fe.getMessage()),
         headers, UNAUTHORIZED);
   }
+
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity<Object> handleConflict(DataIntegrityViolationException ex) {
+    var headers = new HttpHeaders();
+    headers.setContentType(APPLICATION_PROBLEM_JSON);
+    return new ResponseEntity<>(
+        new Problem(
+            CONFLICT.value(),
+            CONFLICT.name(),
+            "Conflicting concurrent update, please retry"),
+        headers, CONFLICT);
+  }
 }
@@ -0,0 +1,48 @@
+package com.weareadaptive.auction.idempotency;
+
+import com.weareadaptive.auction.model.StoredResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used responses by user and key, dropped once their time to live has passed.
+ */
+public class IdempotencyCache {
+  private final Map<String, Entry> entries;
+  private final long ttlMillis;
+
+  public IdempotencyCache(int maxSize, long ttlMillis) {
+    this.ttlMillis = ttlMillis;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  public synchronized StoredResponse get(String username, String key) {
+    var id = id(username, key);
+    var entry = entries.get(id);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(id);
+      return null;
+    }
+    return entry.response();
+  }
+
+  public synchronized void put(String username, String key, StoredResponse response) {
+    entries.put(id(username, key),
+        new Entry(response, System.currentTimeMillis() + ttlMillis));
+  }
+
+  private static String id(String username, String key) {
+    return username + '\n' + key;
+  }
+
+  private record Entry(StoredResponse response, long expiresAt) {
+  }
+}
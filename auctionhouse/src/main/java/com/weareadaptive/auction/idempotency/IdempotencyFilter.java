@@ -0,0 +1,206 @@
+package com.weareadaptive.auction.idempotency;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weareadaptive.auction.exception.Problem;
+import com.weareadaptive.auction.model.StoredResponse;
+import com.weareadaptive.auction.repository.IdempotencyRepository;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Runs a POST carrying an {@code Idempotency-Key} at most once per user and key. The key is
+ * claimed in the shared table before the request runs, so a retry reaching another node or
+ * arriving after a restart is answered with the stored response. Server errors release the
+ * claim so that the request can be retried. The key is bound to the path and to a hash of the
+ * body it was first used with: reusing it for another request is rejected, not replayed.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+  public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  public static final String REPLAYED = "Idempotent-Replayed";
+  private static final int MAX_KEY_LENGTH = 100;
+
+  private final IdempotencyRepository idempotencyRepository;
+  private final IdempotencyCache cache;
+  private final ObjectMapper objectMapper;
+  private final IdempotencyProperties properties;
+
+  public IdempotencyFilter(IdempotencyRepository idempotencyRepository,
+                           IdempotencyProperties properties,
+                           ObjectMapper objectMapper) {
+    this.idempotencyRepository = idempotencyRepository;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.cache = new IdempotencyCache(properties.cacheSize(), properties.ttl().toMillis());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    var key = request.getHeader(IDEMPOTENCY_KEY);
+    var principal = request.getUserPrincipal();
+    if (key == null || principal == null || !"POST".equals(request.getMethod())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      writeProblem(response, BAD_REQUEST,
+          IDEMPOTENCY_KEY + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+      return;
+    }
+
+    var username = principal.getName();
+    var path = request.getRequestURI();
+    var body = request.getInputStream().readAllBytes();
+    var hash = hash(body);
+    var stored = cache.get(username, key);
+    if (stored == null) {
+      var expiredBefore = Instant.now().minus(properties.ttl());
+      if (idempotencyRepository.claim(username, key, path, hash, expiredBefore)) {
+        execute(new BufferedRequest(request, body), response, filterChain, username, key, hash);
+        return;
+      }
+      stored = idempotencyRepository.findCompleted(username, key).orElse(null);
+      if (stored == null) {
+        writeProblem(response, CONFLICT, "A request with this " + IDEMPOTENCY_KEY
+            + " is still in progress");
+        return;
+      }
+      cache.put(username, key, stored);
+    }
+    replay(response, stored, path, hash);
+  }
+
+  private void execute(HttpServletRequest request, HttpServletResponse response,
+                       FilterChain filterChain, String username, String key, String hash)
+      throws ServletException, IOException {
+    var wrapper = new ContentCachingResponseWrapper(response);
+    var completed = false;
+    try {
+      filterChain.doFilter(request, wrapper);
+      if (wrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+        var stored = new StoredResponse(request.getRequestURI(), hash, wrapper.getStatus(),
+            wrapper.getContentType(), wrapper.getContentAsByteArray());
+        idempotencyRepository.complete(username, key, stored);
+        cache.put(username, key, stored);
+        completed = true;
+      }
+    } finally {
+      if (!completed) {
+        idempotencyRepository.release(username, key);
+      }
+      wrapper.copyBodyToResponse();
+    }
+  }
+
+  private void replay(HttpServletResponse response, StoredResponse stored, String path,
+                      String hash) throws IOException {
+    if (!stored.requestPath().equals(path)) {
+      writeProblem(response, UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY
+          + " was already used for " + stored.requestPath());
+      return;
+    }
+    if (stored.requestHash() != null && !stored.requestHash().equals(hash)) {
+      writeProblem(response, UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY
+          + " was already used with another request body");
+      return;
+    }
+    response.setStatus(stored.status());
+    response.setHeader(REPLAYED, "true");
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    response.getOutputStream().write(stored.body());
+  }
+
+  private void writeProblem(HttpServletResponse response, HttpStatus status, String message)
+      throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(APPLICATION_PROBLEM_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(),
+        new Problem(status.value(), status.name(), message));
+  }
+
+  private static String hash(byte[] body) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Serves the body read to hash it to the rest of the chain.
+   */
+  private static final class BufferedRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+
+    private BufferedRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      var input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          return input.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      return new BufferedReader(new InputStreamReader(getInputStream(),
+          getCharacterEncoding() == null ? StandardCharsets.UTF_8
+              : Charset.forName(getCharacterEncoding())));
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.weareadaptive.auction.idempotency;
+
+import com.weareadaptive.auction.jobs.ClusterJob;
+import com.weareadaptive.auction.jobs.JobPartition;
+import com.weareadaptive.auction.repository.IdempotencyRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys past their time to live, which keeps the table bounded.
+ */
+@Component
+public class IdempotencyKeyCleanupJob implements ClusterJob {
+  private final IdempotencyRepository idempotencyRepository;
+  private final IdempotencyProperties properties;
+
+  public IdempotencyKeyCleanupJob(IdempotencyRepository idempotencyRepository,
+                                  IdempotencyProperties properties) {
+    this.idempotencyRepository = idempotencyRepository;
+    this.properties = properties;
+  }
+
+  @Override
+  public String name() {
+    return "idempotency-key-cleanup";
+  }
+
+  @Override
+  public Duration interval() {
+    return Duration.ofHours(1);
+  }
+
+  @Override
+  public void run(JobPartition partition) {
+    idempotencyRepository.deleteCreatedBefore(Instant.now().minus(properties.ttl()));
+  }
+}
@@ -0,0 +1,16 @@
+package com.weareadaptive.auction.idempotency;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How long a response is replayed for its idempotency key, and how many responses each node
+ * keeps in memory in front of the shared table.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.idempotency")
+public record IdempotencyProperties(@DefaultValue("24h") Duration ttl,
+                                    @DefaultValue("10000") int cacheSize) {
+}
@@ -0,0 +1,17 @@
+package com.weareadaptive.auction.jobs;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How long closed lots stay in the hot tables, and how the archive job splits its work.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.archive")
+public record ArchiveProperties(@DefaultValue("7d") Duration closedFor,
+                                @DefaultValue("1h") Duration interval,
+                                @DefaultValue("4") int partitions,
+                                @DefaultValue("500") int batchSize) {
+}
@@ -0,0 +1,56 @@
+package com.weareadaptive.auction.jobs;
+
+import com.weareadaptive.auction.repository.AuctionRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves lots closed for longer than the configured period, with their bids, to the archive. Each
+ * batch is its own transaction, so locks are short and an interrupted run resumes where it
+ * stopped.
+ */
+@Component
+public class AuctionArchiveJob implements ClusterJob {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AuctionArchiveJob.class);
+
+  private final AuctionRepository auctionRepository;
+  private final ArchiveProperties properties;
+
+  public AuctionArchiveJob(AuctionRepository auctionRepository, ArchiveProperties properties) {
+    this.auctionRepository = auctionRepository;
+    this.properties = properties;
+  }
+
+  @Override
+  public String name() {
+    return "auction-archive";
+  }
+
+  @Override
+  public Duration interval() {
+    return properties.interval();
+  }
+
+  @Override
+  public int partitions() {
+    return properties.partitions();
+  }
+
+  @Override
+  public void run(JobPartition partition) {
+    var closedBefore = Instant.now().minus(properties.closedFor());
+    var total = 0;
+    int archived;
+    do {
+      archived = auctionRepository.archiveClosedBefore(
+          closedBefore, partition.index(), partition.count(), properties.batchSize());
+      total += archived;
+    } while (archived == properties.batchSize());
+    if (total > 0) {
+      LOGGER.info("Archived {} lots of partition {}", total, partition.index());
+    }
+  }
+}
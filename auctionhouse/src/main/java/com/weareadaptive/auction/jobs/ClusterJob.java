@@ -0,0 +1,20 @@
+package com.weareadaptive.auction.jobs;
+
+import java.time.Duration;
+
+/**
+ * Background work that must run on one node of the cluster at a time. A job with several
+ * partitions splits its rows between them, and each partition is leased separately, so that
+ * nodes share a long job.
+ */
+public interface ClusterJob {
+  String name();
+
+  Duration interval();
+
+  default int partitions() {
+    return 1;
+  }
+
+  void run(JobPartition partition);
+}
@@ -0,0 +1,139 @@
+package com.weareadaptive.auction.jobs;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs each {@link ClusterJob} partition under a Postgres session advisory lock. The lock lives
+ * as long as the connection, so a node that dies mid run releases its leases and another node
+ * picks the partition up on its next tick. The completion time of each partition is recorded,
+ * so a partition runs once per interval across the cluster rather than once per node. Nodes
+ * check several times per interval, which bounds how late a partition runs after a failover.
+ */
+@Component
+@Profile("!in-memory")
+public class ClusterJobRunner {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterJobRunner.class);
+  private static final int TICKS_PER_INTERVAL = 4;
+  private static final long MIN_TICK_MILLIS = 1_000;
+
+  private final DataSource dataSource;
+  private final List<ClusterJob> jobs;
+  private final ScheduledExecutorService scheduler;
+
+  public ClusterJobRunner(DataSource dataSource, ObjectProvider<ClusterJob> jobs) {
+    this.dataSource = dataSource;
+    this.jobs = jobs.orderedStream().toList();
+    this.scheduler = Executors.newScheduledThreadPool(Math.max(1, this.jobs.size()));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    for (ClusterJob job : jobs) {
+      var tick = Math.max(MIN_TICK_MILLIS, job.interval().toMillis() / TICKS_PER_INTERVAL);
+      scheduler.scheduleWithFixedDelay(() -> runDue(job), 0, tick, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Runs every partition of the job that is due and not leased by another node. Partitions are
+   * tried in random order so that concurrent nodes spread over them.
+   */
+  public void runDue(ClusterJob job) {
+    var partitions = new ArrayList<Integer>();
+    for (int i = 0; i < job.partitions(); i++) {
+      partitions.add(i);
+    }
+    Collections.shuffle(partitions);
+    for (int index : partitions) {
+      var partition = new JobPartition(index, job.partitions());
+      try (var connection = dataSource.getConnection()) {
+        runLeased(connection, job, partition);
+      } catch (SQLException | RuntimeException e) {
+        LOGGER.warn("Job {} partition {} failed", job.name(), index, e);
+      }
+    }
+  }
+
+  private void runLeased(Connection connection, ClusterJob job, JobPartition partition)
+      throws SQLException {
+    if (!tryLock(connection, job, partition)) {
+      return;
+    }
+    try {
+      if (isDue(connection, job, partition)) {
+        job.run(partition);
+        markCompleted(connection, job, partition);
+      }
+    } finally {
+      unlock(connection, job, partition);
+    }
+  }
+
+  private static boolean tryLock(Connection connection, ClusterJob job, JobPartition partition)
+      throws SQLException {
+    return queryBoolean(connection, "SELECT pg_try_advisory_lock(?, ?)", job, partition);
+  }
+
+  private static void unlock(Connection connection, ClusterJob job, JobPartition partition)
+      throws SQLException {
+    queryBoolean(connection, "SELECT pg_advisory_unlock(?, ?)", job, partition);
+  }
+
+  private static boolean queryBoolean(Connection connection, String sql, ClusterJob job,
+                                      JobPartition partition) throws SQLException {
+    try (var statement = connection.prepareStatement(sql)) {
+      statement.setInt(1, job.name().hashCode());
+      statement.setInt(2, partition.index());
+      try (var resultSet = statement.executeQuery()) {
+        return resultSet.next() && resultSet.getBoolean(1);
+      }
+    }
+  }
+
+  private static boolean isDue(Connection connection, ClusterJob job, JobPartition partition)
+      throws SQLException {
+    try (var statement = connection.prepareStatement(
+        "SELECT 1 FROM cluster_job_run WHERE job_name = ? AND partition_index = ? "
+            + "AND completed_at > now() - make_interval(secs => ?)")) {
+      statement.setString(1, job.name());
+      statement.setInt(2, partition.index());
+      statement.setDouble(3, job.interval().toMillis() / 1000.0);
+      try (var resultSet = statement.executeQuery()) {
+        return !resultSet.next();
+      }
+    }
+  }
+
+  private static void markCompleted(Connection connection, ClusterJob job,
+                                    JobPartition partition) throws SQLException {
+    try (var statement = connection.prepareStatement(
+        "INSERT INTO cluster_job_run (job_name, partition_index, completed_at) "
+            + "VALUES (?, ?, now()) ON CONFLICT (job_name, partition_index) "
+            + "DO UPDATE SET completed_at = excluded.completed_at")) {
+      statement.setString(1, job.name());
+      statement.setInt(2, partition.index());
+      statement.executeUpdate();
+    }
+  }
+}
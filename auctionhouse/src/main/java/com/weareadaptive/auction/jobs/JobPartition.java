@@ -0,0 +1,8 @@
+package com.weareadaptive.auction.jobs;
+
+/**
+ * Slice {@code index} of {@code count} of a job's work. The job decides how its rows map to
+ * slices; the archive job uses a hash of the lot id.
+ */
+public record JobPartition(int index, int count) {
+}
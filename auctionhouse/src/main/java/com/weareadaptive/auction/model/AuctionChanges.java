@@ -0,0 +1,9 @@
+package com.weareadaptive.auction.model;
+
+import java.util.List;
+
+public record AuctionChanges(List<AuctionLot> auctionLots, List<Bid> bids, long version) {
+  public boolean isEmpty() {
+    return auctionLots.isEmpty() && bids.isEmpty();
+  }
+}
@@ -0,0 +1,58 @@
+package com.weareadaptive.auction.model;
+
+import static java.lang.Math.min;
+import static java.math.BigDecimal.valueOf;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Allocates a lot over its bids, ordered by price descending, in a single pass. Pay as bid
+ * winners pay their own price, uniform price winners all pay the lowest accepted price.
+ */
+public final class AuctionClearing {
+  private AuctionClearing() {
+  }
+
+  public static Result clear(int quantity, AuctionLot.ClearingMode mode, List<Bid> orderedBids) {
+    var availableQuantity = quantity;
+    var winners = 0;
+    var payAsBidRevenue = BigDecimal.ZERO;
+    var clearingPrice = 0.0;
+
+    for (Bid bid : orderedBids) {
+      if (availableQuantity > 0) {
+        var bidQuantity = min(availableQuantity, bid.getQuantity());
+        bid.setState(Bid.State.WIN);
+        bid.setWinQuantity(bidQuantity);
+        clearingPrice = bid.getPrice();
+        winners++;
+
+        availableQuantity -= bidQuantity;
+        if (mode == AuctionLot.ClearingMode.PAY_AS_BID) {
+          payAsBidRevenue =
+              payAsBidRevenue.add(valueOf(bidQuantity).multiply(valueOf(bid.getPrice())));
+        }
+      } else {
+        bid.setState(Bid.State.LOST);
+      }
+    }
+
+    var soldQuantity = quantity - availableQuantity;
+    var revenue = mode == AuctionLot.ClearingMode.UNIFORM_PRICE
+        ? valueOf(soldQuantity).multiply(valueOf(clearingPrice))
+        : payAsBidRevenue;
+    return new Result(
+        soldQuantity,
+        winners,
+        revenue.doubleValue(),
+        clearingPrice);
+  }
+
+  /**
+   * Winners are the first {@code winners} bids of the ordered book, the last of them being the
+   * marginal bid.
+   */
+  public record Result(int soldQuantity, int winners, double revenue, double clearingPrice) {
+  }
+}
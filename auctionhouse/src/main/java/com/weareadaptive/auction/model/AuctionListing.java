@@ -0,0 +1,9 @@
+package com.weareadaptive.auction.model;
+
+import java.util.List;
+
+/**
+ * A lot as listed to a user: the owner sees every bid, anyone else only their own.
+ */
+public record AuctionListing(AuctionLotView lot, boolean owned, List<BidView> bids) {
+}
@@ -4,30 +4,57 @@ import static java.time.Instant.now;
 import static org.apache.logging.log4j.util.Strings.isBlank;
 
 import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Converter;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
 
 @Entity(name = "AuctionLot")
-public class AuctionLot {
+public class AuctionLot implements com.weareadaptive.auction.model.Entity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private int id;
 
   private int ownerId;
-  private String symbol;
+  @Convert(converter = SymbolDictionary.Converter.class)
+  private int symbol;
   private double minPrice;
   private int quantity;
-  private String status;
+  @Convert(converter = StatusConverter.class)
+  private Status status;
   private int totalSoldQuantity;
   private double totalRevenue;
   private Instant closingTime;
+  @Convert(converter = ClearingModeConverter.class)
+  private ClearingMode clearingMode;
+  private double clearingPrice;
+  private boolean rejectNonCompetitive;
+  private int cutoffBidId;
+  private int cutoffQuantity;
+  private long closingVersion;
+  @Generated(GenerationTime.ALWAYS)
+  @Column(insertable = false, updatable = false)
+  private long version;
 
   public AuctionLot() {
   }
 
   public AuctionLot(int ownerId, String symbol, double minPrice, int quantity) {
+    this(ownerId, symbol, minPrice, quantity, ClearingMode.PAY_AS_BID);
+  }
+
+  public AuctionLot(int ownerId, String symbol, double minPrice, int quantity,
+                    ClearingMode clearingMode) {
+    this(ownerId, symbol, minPrice, quantity, clearingMode, false);
+  }
+
+  public AuctionLot(int ownerId, String symbol, double minPrice, int quantity,
+                    ClearingMode clearingMode, boolean rejectNonCompetitive) {
     if (ownerId == 0) {
       throw new BusinessException("owner cannot be null");
     }
@@ -41,13 +68,44 @@ public class AuctionLot {
       throw new BusinessException("quantity must be above 0");
     }
     this.ownerId = ownerId;
-    this.symbol = symbol.toUpperCase().trim();
+    this.symbol = SymbolDictionary.encode(normalizeSymbol(symbol));
     this.quantity = quantity;
     this.minPrice = minPrice;
-    this.status = String.valueOf(Status.OPENED);
+    this.status = Status.OPENED;
+    this.clearingMode = clearingMode == null ? ClearingMode.PAY_AS_BID : clearingMode;
+    this.rejectNonCompetitive = rejectNonCompetitive;
     this.closingTime = now();
   }
 
+  /**
+   * Copy that shares no state with this lot, so that changing one never changes the other.
+   */
+  public AuctionLot copy() {
+    var copy = new AuctionLot();
+    copy.id = id;
+    copy.ownerId = ownerId;
+    copy.symbol = symbol;
+    copy.minPrice = minPrice;
+    copy.quantity = quantity;
+    copy.status = status;
+    copy.totalSoldQuantity = totalSoldQuantity;
+    copy.totalRevenue = totalRevenue;
+    copy.closingTime = closingTime;
+    copy.clearingMode = clearingMode;
+    copy.clearingPrice = clearingPrice;
+    copy.rejectNonCompetitive = rejectNonCompetitive;
+    copy.cutoffBidId = cutoffBidId;
+    copy.cutoffQuantity = cutoffQuantity;
+    copy.closingVersion = closingVersion;
+    copy.version = version;
+    return copy;
+  }
+
+  public static String normalizeSymbol(String symbol) {
+    return symbol.toUpperCase().trim();
+  }
+
+  @Override
   public int getId() {
     return id;
   }
@@ -61,11 +119,15 @@ public class AuctionLot {
   }
 
   public String getSymbol() {
+    return SymbolDictionary.decode(symbol);
+  }
+
+  public int getSymbolCode() {
     return symbol;
   }
 
   public void setSymbol(String symbol) {
-    this.symbol = symbol;
+    this.symbol = SymbolDictionary.encode(normalizeSymbol(symbol));
   }
 
   public double getMinPrice() {
@@ -84,12 +146,12 @@ public class AuctionLot {
     this.quantity = quantity;
   }
 
-  public String getStatus() {
+  public Status getStatus() {
     return status;
   }
 
   public void setStatus(Status status) {
-    this.status = String.valueOf(status);
+    this.status = status;
   }
 
   public int getTotalSoldQuantity() {
@@ -116,11 +178,87 @@ public class AuctionLot {
     this.closingTime = closingTime;
   }
 
+  public ClearingMode getClearingMode() {
+    return clearingMode;
+  }
+
+  public double getClearingPrice() {
+    return clearingPrice;
+  }
+
+  public void setClearingPrice(double clearingPrice) {
+    this.clearingPrice = clearingPrice;
+  }
+
+  public int getCutoffBidId() {
+    return cutoffBidId;
+  }
+
+  public int getCutoffQuantity() {
+    return cutoffQuantity;
+  }
+
+  public void setCutoff(int cutoffBidId, int cutoffQuantity) {
+    this.cutoffBidId = cutoffBidId;
+    this.cutoffQuantity = cutoffQuantity;
+  }
+
+  public long getClosingVersion() {
+    return closingVersion;
+  }
+
+  /**
+   * The latest bid version the close settled. A bid written or amended after it was not part of
+   * the close.
+   */
+  public void setClosingVersion(long closingVersion) {
+    this.closingVersion = closingVersion;
+  }
+
+  /**
+   * Resolves a bid still pending on a closed lot: it won if the close saw it and it ranks at or
+   * above the marginal bid, by price then by id, and lost otherwise.
+   */
+  public Bid resolve(Bid bid) {
+    if (status != Status.CLOSED || bid.getState() != Bid.State.PENDING) {
+      return bid;
+    }
+    if (wins(bid.getId(), bid.getVersion(), bid.getPrice(), clearingPrice, cutoffBidId,
+        closingVersion)) {
+      bid.setState(Bid.State.WIN);
+      bid.setWinQuantity(bid.getId() == cutoffBidId ? cutoffQuantity : bid.getQuantity());
+    } else {
+      bid.setState(Bid.State.LOST);
+      bid.setWinQuantity(0);
+    }
+    return bid;
+  }
+
+  // Lots closed before the closing version was recorded have none.
+  static boolean wins(int bidId, long version, double price, double clearingPrice,
+                      int cutoffBidId, long closingVersion) {
+    return cutoffBidId != 0
+        && (closingVersion == 0 || version <= closingVersion)
+        && (price > clearingPrice || price == clearingPrice && bidId <= cutoffBidId);
+  }
+
+  public boolean isRejectNonCompetitive() {
+    return rejectNonCompetitive;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   @Override
   public String toString() {
     return "AuctionLot{"
         + "ownerId=" + ownerId
-        + ", symbol='" + symbol + '\''
+        + ", symbol='" + getSymbol() + '\''
         + ", status=" + status
         + '}';
   }
@@ -129,4 +267,23 @@ public class AuctionLot {
     OPENED,
     CLOSED
   }
+
+  public enum ClearingMode {
+    PAY_AS_BID,
+    UNIFORM_PRICE
+  }
+
+  @Converter
+  public static class StatusConverter extends EnumCodeConverter<Status> {
+    public StatusConverter() {
+      super(Status.class);
+    }
+  }
+
+  @Converter
+  public static class ClearingModeConverter extends EnumCodeConverter<ClearingMode> {
+    public ClearingModeConverter() {
+      super(ClearingMode.class);
+    }
+  }
 }
@@ -0,0 +1,40 @@
+package com.weareadaptive.auction.model;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Lots indexed by owner and by symbol code, so that either lookup costs the number of matches.
+ */
+public class AuctionLotState extends State<AuctionLot> {
+  private final IntIndex byOwner = new IntIndex();
+  private final IntIndex bySymbol = new IntIndex();
+
+  @Override
+  protected void onAdd(AuctionLot model) {
+    byOwner.add(model.getOwnerId(), model.getId());
+    bySymbol.add(model.getSymbolCode(), model.getId());
+  }
+
+  @Override
+  protected void onRemove(AuctionLot model) {
+    byOwner.remove(model.getOwnerId(), model.getId());
+    bySymbol.remove(model.getSymbolCode(), model.getId());
+  }
+
+  @Override
+  protected void onReplace(AuctionLot previous, AuctionLot model) {
+    if (previous.getOwnerId() != model.getOwnerId()
+        || previous.getSymbolCode() != model.getSymbolCode()) {
+      super.onReplace(previous, model);
+    }
+  }
+
+  public Stream<AuctionLot> findByOwner(int ownerId) {
+    return byOwner.stream(ownerId).mapToObj(this::get).filter(Objects::nonNull);
+  }
+
+  public Stream<AuctionLot> findBySymbol(int symbolCode) {
+    return bySymbol.stream(symbolCode).mapToObj(this::get).filter(Objects::nonNull);
+  }
+}
@@ -0,0 +1,47 @@
+package com.weareadaptive.auction.model;
+
+/**
+ * Read-only projection of an {@link AuctionLot}, holding what listing a lot and resolving its
+ * bids needs. Queries build it directly, so reading it adds nothing to the persistence context.
+ */
+public record AuctionLotView(int id, int ownerId, int symbolCode, double minPrice, int quantity,
+                             AuctionLot.Status status, AuctionLot.ClearingMode clearingMode,
+                             double clearingPrice, int cutoffBidId, int cutoffQuantity,
+                             long closingVersion) {
+  // Hibernate matches a converted attribute, the symbol code, to its boxed type when resolving
+  // the constructor of a select new expression.
+  public AuctionLotView(int id, int ownerId, Integer symbolCode, double minPrice, int quantity,
+                        AuctionLot.Status status, AuctionLot.ClearingMode clearingMode,
+                        double clearingPrice, int cutoffBidId, int cutoffQuantity,
+                        long closingVersion) {
+    this(id, ownerId, symbolCode.intValue(), minPrice, quantity, status, clearingMode,
+        clearingPrice, cutoffBidId, cutoffQuantity, closingVersion);
+  }
+
+  public static AuctionLotView of(AuctionLot auctionLot) {
+    return new AuctionLotView(auctionLot.getId(), auctionLot.getOwnerId(),
+        auctionLot.getSymbolCode(), auctionLot.getMinPrice(), auctionLot.getQuantity(),
+        auctionLot.getStatus(), auctionLot.getClearingMode(), auctionLot.getClearingPrice(),
+        auctionLot.getCutoffBidId(), auctionLot.getCutoffQuantity(),
+        auctionLot.getClosingVersion());
+  }
+
+  public String symbol() {
+    return SymbolDictionary.decode(symbolCode);
+  }
+
+  /**
+   * Same as {@link AuctionLot#resolve(Bid)}, returning a resolved copy.
+   */
+  public BidView resolve(BidView bid) {
+    if (status != AuctionLot.Status.CLOSED || bid.state() != Bid.State.PENDING) {
+      return bid;
+    }
+    if (AuctionLot.wins(bid.id(), bid.version(), bid.price(), clearingPrice, cutoffBidId,
+        closingVersion)) {
+      return bid.withOutcome(Bid.State.WIN,
+          bid.id() == cutoffBidId ? cutoffQuantity : bid.quantity());
+    }
+    return bid.withOutcome(Bid.State.LOST, 0);
+  }
+}
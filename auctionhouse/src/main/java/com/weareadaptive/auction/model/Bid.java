@@ -1,22 +1,31 @@
 package com.weareadaptive.auction.model;
 
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Converter;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
 
 @Entity(name = "AuctionBid")
-public class Bid {
+public class Bid implements com.weareadaptive.auction.model.Entity {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
-  Integer id;
+  private int id;
 
   private int auctionId;
   private int userId;
   private int quantity;
   private double price;
-  private String state;
+  @Convert(converter = StateConverter.class)
+  private State state;
   private int winQuantity;
+  @Generated(GenerationTime.ALWAYS)
+  @Column(insertable = false, updatable = false)
+  private long version;
 
   public Bid() {
   }
@@ -33,14 +42,15 @@ public class Bid {
     this.userId = userId;
     this.quantity = quantity;
     this.price = price;
-    state = String.valueOf(State.PENDING);
+    state = State.PENDING;
   }
 
-  public Integer getId() {
+  @Override
+  public int getId() {
     return id;
   }
 
-  public void setId(Integer id) {
+  public void setId(int id) {
     this.id = id;
   }
 
@@ -76,12 +86,12 @@ public class Bid {
     this.price = price;
   }
 
-  public String getState() {
+  public State getState() {
     return state;
   }
 
   public void setState(State state) {
-    this.state = String.valueOf(state);
+    this.state = state;
   }
 
   public int getWinQuantity() {
@@ -92,6 +102,14 @@ public class Bid {
     this.winQuantity = winQuantity;
   }
 
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   @Override
   public String toString() {
     return "Bid{"
@@ -104,6 +122,14 @@ public class Bid {
   public enum State {
     PENDING,
     LOST,
-    WIN
+    WIN,
+    CANCELLED
+  }
+
+  @Converter
+  public static class StateConverter extends EnumCodeConverter<State> {
+    public StateConverter() {
+      super(State.class);
+    }
   }
 }
@@ -0,0 +1,17 @@
+package com.weareadaptive.auction.model;
+
+/**
+ * Read-only projection of a {@link Bid}, with the same fields as the entity, so that it
+ * serializes the same way.
+ */
+public record BidView(int id, int auctionId, int userId, int quantity, double price,
+                      Bid.State state, int winQuantity, long version) {
+  public static BidView of(Bid bid) {
+    return new BidView(bid.getId(), bid.getAuctionId(), bid.getUserId(), bid.getQuantity(),
+        bid.getPrice(), bid.getState(), bid.getWinQuantity(), bid.getVersion());
+  }
+
+  public BidView withOutcome(Bid.State state, int winQuantity) {
+    return new BidView(id, auctionId, userId, quantity, price, state, winQuantity, version);
+  }
+}
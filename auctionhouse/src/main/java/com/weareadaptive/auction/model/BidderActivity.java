@@ -0,0 +1,4 @@
+package com.weareadaptive.auction.model;
+
+public record BidderActivity(int userId, long bids, long quantityWon) {
+}
@@ -0,0 +1,13 @@
+package com.weareadaptive.auction.model;
+
+import java.time.Instant;
+
+public record ClosedLotPrice(int auctionId, int symbol, Instant closingTime, int soldQuantity,
+                             double revenue, double clearingPrice) {
+  // Hibernate matches a converted attribute, the symbol code, to its boxed type when resolving
+  // the constructor of a select new expression.
+  public ClosedLotPrice(int auctionId, Integer symbol, Instant closingTime, int soldQuantity,
+                        double revenue, double clearingPrice) {
+    this(auctionId, symbol.intValue(), closingTime, soldQuantity, revenue, clearingPrice);
+  }
+}
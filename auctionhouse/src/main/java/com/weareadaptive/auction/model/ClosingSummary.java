@@ -4,5 +4,6 @@ import java.time.Instant;
 import java.util.List;
 
 public record ClosingSummary(List<Bid> winningBids, int totalSoldQuantity, double totalRevenue,
-                             Instant closingTime) {
+                             Instant closingTime, AuctionLot.ClearingMode clearingMode,
+                             double clearingPrice) {
 }
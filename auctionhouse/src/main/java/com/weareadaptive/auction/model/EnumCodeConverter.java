@@ -0,0 +1,25 @@
+package com.weareadaptive.auction.model;
+
+import javax.persistence.AttributeConverter;
+
+/**
+ * Persists an enum as a smallint holding its ordinal. Ordinals are stored, so constants may
+ * only ever be appended.
+ */
+public abstract class EnumCodeConverter<E extends Enum<E>> implements AttributeConverter<E, Short> {
+  private final E[] constants;
+
+  protected EnumCodeConverter(Class<E> type) {
+    constants = type.getEnumConstants();
+  }
+
+  @Override
+  public Short convertToDatabaseColumn(E value) {
+    return value == null ? null : (short) value.ordinal();
+  }
+
+  @Override
+  public E convertToEntityAttribute(Short code) {
+    return code == null ? null : constants[code];
+  }
+}
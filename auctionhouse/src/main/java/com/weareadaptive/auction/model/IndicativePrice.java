@@ -0,0 +1,5 @@
+package com.weareadaptive.auction.model;
+
+public record IndicativePrice(int auctionId, double price, int quantity, int winningQuantity,
+                              boolean filled, int bids) {
+}
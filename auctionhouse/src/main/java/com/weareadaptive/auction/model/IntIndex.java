@@ -0,0 +1,89 @@
+package com.weareadaptive.auction.model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary index from an int key to the ids of the entities carrying it, backed by a
+ * {@link State} of postings lists. Writes are expected under the owning state's write lock.
+ */
+public class IntIndex {
+  private static final int[] NO_IDS = new int[0];
+  private static final int INITIAL_CAPACITY = 4;
+
+  private final State<Postings> postings = new State<>();
+
+  public void add(int key, int id) {
+    var list = postings.get(key);
+    if (list == null) {
+      list = new Postings(key);
+      postings.add(list);
+    }
+    list.add(id);
+  }
+
+  public void remove(int key, int id) {
+    var list = postings.get(key);
+    if (list != null) {
+      list.remove(id);
+    }
+  }
+
+  public int[] get(int key) {
+    var list = postings.get(key);
+    return list == null ? NO_IDS : list.snapshot();
+  }
+
+  public IntStream stream(int key) {
+    return Arrays.stream(get(key));
+  }
+
+  public IntStream keys() {
+    return postings.stream().mapToInt(Postings::getId);
+  }
+
+  private static final class Postings implements Entity {
+    private final int key;
+    private volatile int[] ids = new int[INITIAL_CAPACITY];
+    private volatile int size;
+
+    private Postings(int key) {
+      this.key = key;
+    }
+
+    @Override
+    public int getId() {
+      return key;
+    }
+
+    private void add(int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size] = id;
+      size = size + 1;
+    }
+
+    // Copy on write: a concurrent reader keeps iterating the array it already holds.
+    private void remove(int id) {
+      var current = ids;
+      var copy = new int[current.length];
+      var count = 0;
+      for (int i = 0; i < size; i++) {
+        if (current[i] != id) {
+          copy[count++] = current[i];
+        }
+      }
+      ids = copy;
+      size = count;
+    }
+
+    private int[] snapshot() {
+      var count = size;
+      var current = ids;
+      return Arrays.stream(current, 0, Math.min(count, current.length))
+          .filter(id -> id != 0)
+          .toArray();
+    }
+  }
+}
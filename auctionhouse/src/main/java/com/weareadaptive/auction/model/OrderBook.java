@@ -0,0 +1,123 @@
+package com.weareadaptive.auction.model;
+
+import static java.util.Comparator.comparingDouble;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Live bids of an open lot ranked by price, then by arrival. A bidder holds at most one entry,
+ * so placing, amending or cancelling a bid repositions it in O(log n).
+ *
+ * <p>The book is split into the shortest prefix of entries covering the lot quantity, the
+ * would-be winners, and everything below it. The last winner is the marginal bid, whose price is
+ * the indicative clearing price.
+ */
+public class OrderBook {
+  private static final Comparator<Entry> PRICE_TIME_PRIORITY =
+      comparingDouble(Entry::price).reversed().thenComparingInt(Entry::bidId);
+
+  private final int quantity;
+  private final NavigableSet<Entry> winners = new TreeSet<>(PRICE_TIME_PRIORITY);
+  private final NavigableSet<Entry> others = new TreeSet<>(PRICE_TIME_PRIORITY);
+  private final Map<Integer, Entry> byBidder = new HashMap<>();
+  private int winningQuantity;
+
+  public OrderBook(int quantity) {
+    this.quantity = quantity;
+  }
+
+  public synchronized void put(Bid bid) {
+    var entry = new Entry(bid.getId(), bid.getUserId(), bid.getQuantity(), bid.getPrice());
+    var previous = byBidder.put(entry.userId(), entry);
+    if (previous != null) {
+      unlink(previous);
+    }
+
+    if (isFilled() && PRICE_TIME_PRIORITY.compare(entry, winners.last()) > 0) {
+      others.add(entry);
+      return;
+    }
+    winners.add(entry);
+    winningQuantity += entry.quantity();
+    while (winners.size() > 1 && winningQuantity - winners.last().quantity() >= quantity) {
+      var last = winners.pollLast();
+      winningQuantity -= last.quantity();
+      others.add(last);
+    }
+  }
+
+  public synchronized void remove(int userId) {
+    var previous = byBidder.remove(userId);
+    if (previous != null) {
+      unlink(previous);
+    }
+  }
+
+  public synchronized int size() {
+    return winners.size() + others.size();
+  }
+
+  public synchronized int getWinningQuantity() {
+    return winningQuantity;
+  }
+
+  public synchronized boolean isFilled() {
+    return winningQuantity >= quantity;
+  }
+
+  public synchronized double getMarginalPrice(double minPrice) {
+    return isFilled() ? winners.last().price() : minPrice;
+  }
+
+  /**
+   * Marginal price of the book without the entry of the bidder: the price the bidder must reach
+   * when the other bids already fill the lot.
+   */
+  public synchronized double getMarginalPriceExcluding(int userId, double minPrice) {
+    var own = byBidder.get(userId);
+    if (own == null || !winners.contains(own)) {
+      return getMarginalPrice(minPrice);
+    }
+    var covered = 0;
+    for (NavigableSet<Entry> entries : List.of(winners, others)) {
+      for (Entry entry : entries) {
+        if (entry != own) {
+          covered += entry.quantity();
+          if (covered >= quantity) {
+            return entry.price();
+          }
+        }
+      }
+    }
+    return minPrice;
+  }
+
+  /**
+   * Whether a bid at this price would rank below a marginal bid that fills the lot without the
+   * bidder, so that amending a bid is held to the same bar as placing one.
+   */
+  public synchronized boolean isNonCompetitive(int userId, double price) {
+    return price < getMarginalPriceExcluding(userId, Double.NEGATIVE_INFINITY);
+  }
+
+  private void unlink(Entry entry) {
+    if (!winners.remove(entry)) {
+      others.remove(entry);
+      return;
+    }
+    winningQuantity -= entry.quantity();
+    while (winningQuantity < quantity && !others.isEmpty()) {
+      var first = others.pollFirst();
+      winners.add(first);
+      winningQuantity += first.quantity();
+    }
+  }
+
+  public record Entry(int bidId, int userId, int quantity, double price) {
+  }
+}
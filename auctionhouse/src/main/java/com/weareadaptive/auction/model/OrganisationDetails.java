@@ -1,6 +1,5 @@
 package com.weareadaptive.auction.model;
 
-import java.util.List;
-
-public record OrganisationDetails(String organisationName, List<User> users) {
+public record OrganisationDetails(String organisationName, long users, long openLots,
+                                  long bidsPlaced, long quantityWon, double revenue) {
 }
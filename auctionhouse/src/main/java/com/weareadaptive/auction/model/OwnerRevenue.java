@@ -0,0 +1,4 @@
+package com.weareadaptive.auction.model;
+
+public record OwnerRevenue(int ownerId, double revenue) {
+}
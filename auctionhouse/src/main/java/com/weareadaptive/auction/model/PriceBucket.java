@@ -0,0 +1,7 @@
+package com.weareadaptive.auction.model;
+
+import java.time.Instant;
+
+public record PriceBucket(Instant start, double open, double high, double low, double close,
+                          double vwap, long volume, int closedLots) {
+}
@@ -1,43 +1,206 @@
 package com.weareadaptive.auction.model;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+/**
+ * Int keyed open addressing store. Ids are allocated lock-free, writes are serialized and
+ * readers never lock: they probe a table snapshot published through a volatile field, whose
+ * slots are published through atomic arrays.
+ */
 public class State<T extends Entity> {
   public static final String ITEM_ALREADY_EXISTS = "Item already exists";
-  private final Map<Integer, T> entities;
-  private int currentId = 1;
+  private static final int EMPTY = 0;
+  private static final int INITIAL_BITS = 4;
+
+  private final AtomicInteger currentId = new AtomicInteger(1);
+  private final Object writeLock = new Object();
+  private volatile Table<T> table;
+  private volatile int size;
 
   public State() {
-    entities = new HashMap<>();
+    table = new Table<>(INITIAL_BITS);
   }
 
   public int nextId() {
-    return currentId++;
+    return currentId.getAndIncrement();
   }
 
   protected void onAdd(T model) {
 
   }
 
+  protected void onRemove(T model) {
+
+  }
+
+  protected void onReplace(T previous, T model) {
+    onRemove(previous);
+    onAdd(model);
+  }
+
   public void add(T model) {
-    if (entities.containsKey(model.getId())) {
-      throw new BusinessException(ITEM_ALREADY_EXISTS);
+    var id = model.getId();
+    if (id == EMPTY) {
+      throw new BusinessException("id cannot be 0");
+    }
+
+    synchronized (writeLock) {
+      if (get(id) != null) {
+        throw new BusinessException(ITEM_ALREADY_EXISTS);
+      }
+      insert(model);
+    }
+  }
+
+  /**
+   * Adds the model, or replaces in place the one stored under its id, so that a concurrent
+   * reader sees one or the other and never neither.
+   */
+  public void put(T model) {
+    var id = model.getId();
+    if (id == EMPTY) {
+      throw new BusinessException("id cannot be 0");
     }
+
+    synchronized (writeLock) {
+      var previous = get(id);
+      if (previous == null) {
+        insert(model);
+      } else if (previous != model) {
+        onReplace(previous, model);
+        table.put(id, model);
+      }
+    }
+  }
+
+  private void insert(T model) {
     onAdd(model);
-    entities.put(model.getId(), model);
+    if (table.needsResize()) {
+      table = table.resize();
+    }
+    table.put(model.getId(), model);
+    size++;
+  }
+
+  public T remove(int id) {
+    synchronized (writeLock) {
+      var model = table.remove(id);
+      if (model != null) {
+        onRemove(model);
+        size--;
+      }
+      return model;
+    }
+  }
+
+  public int lastId() {
+    return currentId.get() - 1;
   }
 
   void setNextId(int id) {
-    this.currentId = id;
+    currentId.set(id);
   }
 
   public T get(int id) {
-    return entities.get(id);
+    return table.get(id);
+  }
+
+  public int size() {
+    return size;
   }
 
   public Stream<T> stream() {
-    return entities.values().stream();
+    var snapshot = table;
+    return IntStream.range(0, snapshot.values.length())
+        .mapToObj(snapshot.values::get)
+        .filter(Objects::nonNull);
+  }
+
+  private static final class Table<T> {
+    private final AtomicIntegerArray keys;
+    private final AtomicReferenceArray<T> values;
+    private final int shift;
+    private final int mask;
+    private int usedSlots;
+
+    private Table(int bits) {
+      keys = new AtomicIntegerArray(1 << bits);
+      values = new AtomicReferenceArray<>(1 << bits);
+      shift = 32 - bits;
+      mask = (1 << bits) - 1;
+    }
+
+    private int slot(int key) {
+      return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private T get(int key) {
+      for (int i = slot(key); ; i = (i + 1) & mask) {
+        var current = keys.get(i);
+        if (current == key) {
+          return values.get(i);
+        }
+        if (current == EMPTY) {
+          return null;
+        }
+      }
+    }
+
+    private void put(int key, T value) {
+      for (int i = slot(key); ; i = (i + 1) & mask) {
+        var current = keys.get(i);
+        if (current == key) {
+          values.set(i, value);
+          return;
+        }
+        // The value is set first, so that a reader finding the key also finds its value
+        if (current == EMPTY) {
+          values.set(i, value);
+          keys.set(i, key);
+          usedSlots++;
+          return;
+        }
+      }
+    }
+
+    // Removed keys keep their slot as a tombstone so that probe chains stay intact.
+    private T remove(int key) {
+      for (int i = slot(key); ; i = (i + 1) & mask) {
+        var current = keys.get(i);
+        if (current == key) {
+          return values.getAndSet(i, null);
+        }
+        if (current == EMPTY) {
+          return null;
+        }
+      }
+    }
+
+    private boolean needsResize() {
+      return (usedSlots + 1) * 2 > keys.length();
+    }
+
+    private Table<T> resize() {
+      var live = 0;
+      for (int i = 0; i < keys.length(); i++) {
+        if (values.get(i) != null) {
+          live++;
+        }
+      }
+      var bits = 32 - shift;
+      var resized = new Table<T>((live + 1) * 4 > keys.length() ? bits + 1 : bits);
+      for (int i = 0; i < keys.length(); i++) {
+        var value = values.get(i);
+        if (value != null) {
+          resized.put(keys.get(i), value);
+        }
+      }
+      return resized;
+    }
   }
 }
@@ -0,0 +1,5 @@
+package com.weareadaptive.auction.model;
+
+public record StoredResponse(String requestPath, String requestHash, int status,
+                             String contentType, byte[] body) {
+}
@@ -0,0 +1,78 @@
+package com.weareadaptive.auction.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.IntStream;
+import javax.persistence.AttributeConverter;
+
+/**
+ * Process wide dictionary of normalized symbols. Each distinct symbol is stored once and given a
+ * small positive code, so lots and indexes hold an int instead of their own copy of the string.
+ * Codes are never reused and are not persisted: the database keeps the symbol text.
+ */
+public final class SymbolDictionary {
+  public static final int NONE = 0;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final ConcurrentNavigableMap<String, Integer> CODES =
+      new ConcurrentSkipListMap<>();
+  private static volatile String[] symbols = new String[INITIAL_CAPACITY];
+  private static int size;
+
+  private SymbolDictionary() {
+  }
+
+  public static int encode(String symbol) {
+    var code = CODES.get(symbol);
+    if (code != null) {
+      return code;
+    }
+    synchronized (SymbolDictionary.class) {
+      code = CODES.get(symbol);
+      if (code != null) {
+        return code;
+      }
+      var next = size + 1;
+      var current = symbols;
+      if (next == current.length) {
+        current = Arrays.copyOf(current, current.length * 2);
+      }
+      current[next] = symbol;
+      symbols = current;
+      size = next;
+      CODES.put(symbol, next);
+      return next;
+    }
+  }
+
+  public static String decode(int code) {
+    return symbols[code];
+  }
+
+  /**
+   * Code of a symbol already in the dictionary, or {@link #NONE}. Lookups never add entries, so
+   * searching for arbitrary text does not grow the dictionary.
+   */
+  public static int find(String symbol) {
+    return CODES.getOrDefault(symbol, NONE);
+  }
+
+  public static IntStream findByPrefix(String prefix) {
+    return CODES.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().stream()
+        .mapToInt(Integer::intValue);
+  }
+
+  @javax.persistence.Converter
+  public static class Converter implements AttributeConverter<Integer, String> {
+    @Override
+    public String convertToDatabaseColumn(Integer code) {
+      return code == null ? null : decode(code);
+    }
+
+    @Override
+    public Integer convertToEntityAttribute(String symbol) {
+      return symbol == null ? null : encode(symbol);
+    }
+  }
+}
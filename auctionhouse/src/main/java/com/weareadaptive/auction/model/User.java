@@ -3,13 +3,16 @@ package com.weareadaptive.auction.model;
 
 import static org.apache.logging.log4j.util.Strings.isBlank;
 
+import java.util.stream.Stream;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 
 @Entity(name = "AuctionUser")
-public class User {
+public class User implements com.weareadaptive.auction.model.Entity {
+  private static final int MAX_LENGTH = 50;
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private int id;
@@ -41,6 +44,11 @@ public class User {
     if (isBlank(organisation)) {
       throw new BusinessException("organisation cannot be null or empty");
     }
+    if (Stream.of(username, password, firstName, lastName, organisation)
+        .anyMatch(value -> value.length() > MAX_LENGTH)) {
+      throw new BusinessException(
+          String.format("user fields cannot be longer than %d characters", MAX_LENGTH));
+    }
     //TODO: Add regex for email
     this.id = id;
     this.username = username;
@@ -95,6 +103,7 @@ public class User {
     this.lastName = lastName;
   }
 
+  @Override
   public int getId() {
     return id;
   }
@@ -0,0 +1,23 @@
+package com.weareadaptive.auction.model;
+
+public record UserImportResult(int row, String username, Status status, Integer id,
+                               String message) {
+  public static UserImportResult created(int row, User user) {
+    return new UserImportResult(row, user.getUsername(), Status.CREATED, user.getId(), null);
+  }
+
+  public static UserImportResult duplicate(int row, String username) {
+    return new UserImportResult(row, username, Status.DUPLICATE, null,
+        String.format("%s already exist", username));
+  }
+
+  public static UserImportResult invalid(int row, String username, String message) {
+    return new UserImportResult(row, username, Status.INVALID, null, message);
+  }
+
+  public enum Status {
+    CREATED,
+    DUPLICATE,
+    INVALID
+  }
+}
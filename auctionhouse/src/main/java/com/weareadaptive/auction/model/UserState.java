@@ -0,0 +1,34 @@
+package com.weareadaptive.auction.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class UserState extends State<User> {
+  private final Map<String, Integer> byUsername = new ConcurrentHashMap<>();
+
+  @Override
+  protected void onAdd(User model) {
+    if (byUsername.putIfAbsent(model.getUsername(), model.getId()) != null) {
+      throw new BusinessException(String.format("%s already exist", model.getUsername()));
+    }
+  }
+
+  @Override
+  protected void onRemove(User model) {
+    byUsername.remove(model.getUsername(), model.getId());
+  }
+
+  // The new username is claimed first, so that a clash leaves the stored user untouched.
+  @Override
+  protected void onReplace(User previous, User model) {
+    if (!previous.getUsername().equals(model.getUsername())) {
+      onAdd(model);
+      onRemove(previous);
+    }
+  }
+
+  public User findByUsername(String username) {
+    var id = byUsername.get(username);
+    return id == null ? null : get(id);
+  }
+}
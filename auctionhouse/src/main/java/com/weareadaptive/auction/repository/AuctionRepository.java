@@ -1,13 +1,69 @@
 package com.weareadaptive.auction.repository;
 
 import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotView;
+import com.weareadaptive.auction.model.OwnerRevenue;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.stereotype.Repository;
+import java.util.function.Function;
+
+public interface AuctionRepository {
+  <S extends AuctionLot> S save(S auctionLot);
+
+  Optional<AuctionLot> findById(Integer id);
+
+  List<AuctionLot> findAll();
+
+  List<AuctionLot> findAllById(Iterable<Integer> ids);
+
+  List<AuctionLot> findByStatus(AuctionLot.Status status);
+
+  List<AuctionLotView> findAllViews();
+
+  List<AuctionLotView> findViewsById(Collection<Integer> ids);
+
+  List<AuctionLotView> findViewsBySymbolPrefix(String prefix);
+
+  List<AuctionLotView> findViewsBySymbolPrefixAndStatus(String prefix, AuctionLot.Status status);
 
-@Repository
-public interface AuctionRepository extends JpaRepository<AuctionLot, Integer> {
-  @Query("select a from AuctionLot a where a.id = ?1 and a.ownerId = ?2")
   Optional<AuctionLot> validateAuctionOwner(int auctionId, int userId);
+
+  /**
+   * Position in the change feed below which every change is committed. Changes of writes still
+   * in flight are at or above it, so a feed read up to the watermark never skips them.
+   */
+  long changeWatermark();
+
+  /**
+   * Lots changed at a position from {@code from} inclusive to {@code to} exclusive.
+   */
+  List<AuctionLot> findChangedBetween(long from, long to);
+
+  List<OwnerRevenue> findRevenueByOwner();
+
+  /**
+   * Runs the work in one transaction holding a lock on the lot: shared by writes to its bids,
+   * exclusive for its close. A close therefore settles every bid written before it, and no bid
+   * is written after it. The work is given the status of the lot read under the lock.
+   */
+  <T> T inLotTransaction(int auctionId, LotLock lock, Function<AuctionLot.Status, T> work);
+
+  /**
+   * Stores the closing of the lot, unless the stored lot is already closed. Returns whether it
+   * did, so that of two concurrent closes only one settles the lot.
+   */
+  boolean closeIfOpen(AuctionLot auctionLot);
+
+  /**
+   * Moves up to {@code limit} lots of the partition closed before the instant, with their bids,
+   * to cold storage, where they remain readable. Returns the number of lots moved.
+   */
+  int archiveClosedBefore(Instant closedBefore, int partition, int partitions, int limit);
+
+  enum LotLock {
+    SHARED,
+    EXCLUSIVE
+  }
 }
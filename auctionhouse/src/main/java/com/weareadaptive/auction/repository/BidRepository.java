@@ -1,23 +1,37 @@
 package com.weareadaptive.auction.repository;
 
 import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
+import com.weareadaptive.auction.model.BidderActivity;
+import com.weareadaptive.auction.model.ClosedLotPrice;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.stereotype.Repository;
 
-@Repository
-public interface BidRepository extends JpaRepository<Bid, Integer> {
-  @Query("select b from AuctionBid b where b.auctionId = ?1")
+public interface BidRepository {
+  <S extends Bid> S save(S bid);
+
+  <S extends Bid> List<S> saveAll(Iterable<S> bids);
+
   List<Bid> getAuctionBids(int auctionId);
 
-  @Query("select b from AuctionBid b where b.auctionId = ?1 order by b.price desc")
   List<Bid> getBidsOrderedByPrice(int auctionId);
 
-  @Query("select b from AuctionBid b where b.auctionId = ?1 and b.state = 'WIN' order by b.price desc")
   List<Bid> getOrderedWinningBids(int auctionId);
 
-  @Query("select b from AuctionBid b where b.auctionId = ?1 and b.userId = ?2")
   Optional<Bid> getBidByBidderId(int auctionId, int userId);
+
+  List<BidView> findViewsByAuctionId(int auctionId);
+
+  Optional<BidView> findViewByBidder(int auctionId, int userId);
+
+  List<BidView> findViewsByBidder(int userId);
+
+  List<BidView> findViewsByLotOwner(int ownerId);
+
+  List<Bid> findVisibleChangedBetween(long from, long to, int userId);
+
+  List<ClosedLotPrice> findClosedLotPrices(Instant since);
+
+  List<BidderActivity> findActivityByBidder();
 }
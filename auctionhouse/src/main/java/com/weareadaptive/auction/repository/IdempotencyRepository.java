@@ -0,0 +1,23 @@
+package com.weareadaptive.auction.repository;
+
+import com.weareadaptive.auction.model.StoredResponse;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRepository {
+  /**
+   * Claims the key for a request about to run. Fails when the key is held by a request in
+   * progress or completed since {@code expiredBefore}; older claims are taken over. The hash of
+   * the request body is kept to tell a retry from another request reusing the key.
+   */
+  boolean claim(String username, String key, String requestPath, String requestHash,
+                Instant expiredBefore);
+
+  Optional<StoredResponse> findCompleted(String username, String key);
+
+  void complete(String username, String key, StoredResponse response);
+
+  void release(String username, String key);
+
+  int deleteCreatedBefore(Instant instant);
+}
@@ -1,28 +1,28 @@
 package com.weareadaptive.auction.repository;
 
 import com.weareadaptive.auction.model.User;
+import java.util.List;
 import java.util.Optional;
-import javax.transaction.Transactional;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.stereotype.Repository;
-
-@Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
-  @Query("select u from AuctionUser u where u.username=?1 and u.password=?2")
+import java.util.function.Consumer;
+
+public interface UserRepository {
+  <S extends User> S save(S user);
+
+  Optional<User> findById(Integer id);
+
+  List<User> findAll();
+
+  List<User> findPage(int afterId, int limit, String organisation, Boolean blocked);
+
+  void forEachUser(String organisation, Boolean blocked, Consumer<User> consumer);
+
+  List<User> insertAllIgnoringDuplicates(List<User> users);
+
   Optional<User> validateUsernamePassword(String username, String password);
 
-  @Transactional
-  @Modifying
-  @Query("update AuctionUser u set u.blocked = true where u.id = ?1")
   int block(int id);
 
-  @Transactional
-  @Modifying
-  @Query("update AuctionUser u set u.blocked = false where u.id = ?1")
   int unblock(int id);
 
-  @Query("select u from AuctionUser u where u.username = ?1")
   User findByName(String ownerName);
 }
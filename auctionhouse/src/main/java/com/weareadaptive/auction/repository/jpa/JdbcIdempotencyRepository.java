@@ -0,0 +1,66 @@
+package com.weareadaptive.auction.repository.jpa;
+
+import com.weareadaptive.auction.model.StoredResponse;
+import com.weareadaptive.auction.repository.IdempotencyRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("!in-memory")
+public class JdbcIdempotencyRepository implements IdempotencyRepository {
+  private static final String CLAIM = "INSERT INTO idempotency_key "
+      + "(username, idempotency_key, request_path, request_hash) VALUES (?, ?, ?, ?) "
+      + "ON CONFLICT (username, idempotency_key) DO UPDATE SET request_path = excluded.request_path, "
+      + "request_hash = excluded.request_hash, status = NULL, content_type = NULL, body = NULL, "
+      + "created_at = now() WHERE idempotency_key.created_at < ?";
+  private static final RowMapper<StoredResponse> RESPONSE_MAPPER = (rs, rowNum) ->
+      new StoredResponse(rs.getString("request_path"), rs.getString("request_hash"),
+          rs.getInt("status"),
+          rs.getString("content_type"), rs.getBytes("body"));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcIdempotencyRepository(DataSource dataSource) {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @Override
+  public boolean claim(String username, String key, String requestPath, String requestHash,
+                       Instant expiredBefore) {
+    return jdbcTemplate.update(CLAIM, username, key, requestPath, requestHash,
+        Timestamp.from(expiredBefore)) == 1;
+  }
+
+  @Override
+  public Optional<StoredResponse> findCompleted(String username, String key) {
+    return jdbcTemplate.query("SELECT request_path, request_hash, status, content_type, body "
+            + "FROM idempotency_key WHERE username = ? AND idempotency_key = ? "
+            + "AND status IS NOT NULL", RESPONSE_MAPPER, username, key)
+        .stream().findFirst();
+  }
+
+  @Override
+  public void complete(String username, String key, StoredResponse response) {
+    jdbcTemplate.update("UPDATE idempotency_key SET status = ?, content_type = ?, body = ? "
+            + "WHERE username = ? AND idempotency_key = ?",
+        response.status(), response.contentType(), response.body(), username, key);
+  }
+
+  @Override
+  public void release(String username, String key) {
+    jdbcTemplate.update("DELETE FROM idempotency_key "
+        + "WHERE username = ? AND idempotency_key = ? AND status IS NULL", username, key);
+  }
+
+  @Override
+  public int deleteCreatedBefore(Instant instant) {
+    return jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at < ?",
+        Timestamp.from(instant));
+  }
+}
@@ -0,0 +1,184 @@
+package com.weareadaptive.auction.repository.jpa;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotView;
+import com.weareadaptive.auction.model.ObjectNotFoundException;
+import com.weareadaptive.auction.model.OwnerRevenue;
+import com.weareadaptive.auction.model.SymbolDictionary;
+import com.weareadaptive.auction.repository.AuctionRepository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface JpaAuctionRepository extends JpaRepository<AuctionLot, Integer>,
+    AuctionRepository {
+  String LOT_VIEW = "select new com.weareadaptive.auction.model.AuctionLotView(a.id, a.ownerId, "
+      + "a.symbol, a.minPrice, a.quantity, a.status, a.clearingMode, a.clearingPrice, "
+      + "a.cutoffBidId, a.cutoffQuantity, a.closingVersion) from AuctionLot a ";
+  String LOT_ROW = "SELECT id, owner_id AS \"ownerId\", symbol, min_price AS \"minPrice\", "
+      + "quantity, status, clearing_mode AS \"clearingMode\", "
+      + "clearing_price AS \"clearingPrice\", cutoff_bid_id AS \"cutoffBidId\", "
+      + "cutoff_quantity AS \"cutoffQuantity\", closing_version AS \"closingVersion\" "
+      + "FROM auction_lot ";
+
+  @Override
+  @Query("select a from AuctionLot a where a.id = ?1 and a.ownerId = ?2")
+  Optional<AuctionLot> validateAuctionOwner(int auctionId, int userId);
+
+  /**
+   * The position of a change is the id of the transaction that wrote it. Transactions below the
+   * oldest one still running have all committed or rolled back.
+   */
+  @Override
+  @Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint",
+      nativeQuery = true)
+  long changeWatermark();
+
+  @Override
+  @Query(value = "SELECT * FROM auction_lot WHERE change_xid >= ?1 AND change_xid < ?2 "
+      + "ORDER BY version", nativeQuery = true)
+  List<AuctionLot> findChangedBetween(long from, long to);
+
+  @Override
+  @Transactional
+  default <T> T inLotTransaction(int auctionId, LotLock lock,
+                                 Function<AuctionLot.Status, T> work) {
+    var status = (lock == LotLock.EXCLUSIVE ? lockForUpdate(auctionId) : lockForShare(auctionId))
+        .orElseThrow(() -> new ObjectNotFoundException(
+            "Auction with id " + auctionId + " doesn't exist"));
+    return work.apply(AuctionLot.Status.values()[status]);
+  }
+
+  @Query(value = "SELECT status::int FROM auction_lot WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+  Optional<Integer> lockForUpdate(int auctionId);
+
+  @Query(value = "SELECT status::int FROM auction_lot WHERE id = ?1 FOR SHARE", nativeQuery = true)
+  Optional<Integer> lockForShare(int auctionId);
+
+  @Override
+  default boolean closeIfOpen(AuctionLot auctionLot) {
+    return closeIfInStatus(auctionLot.getId(), AuctionLot.Status.OPENED, auctionLot.getStatus(),
+        auctionLot.getClosingTime(), auctionLot.getTotalRevenue(),
+        auctionLot.getTotalSoldQuantity(), auctionLot.getClearingPrice(),
+        auctionLot.getCutoffBidId(), auctionLot.getCutoffQuantity(),
+        auctionLot.getClosingVersion()) == 1;
+  }
+
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update AuctionLot a set a.status = ?3, a.closingTime = ?4, a.totalRevenue = ?5, "
+      + "a.totalSoldQuantity = ?6, a.clearingPrice = ?7, a.cutoffBidId = ?8, "
+      + "a.cutoffQuantity = ?9, a.closingVersion = ?10 where a.id = ?1 and a.status = ?2")
+  int closeIfInStatus(int id, AuctionLot.Status current, AuctionLot.Status status,
+                      Instant closingTime, double totalRevenue, int totalSoldQuantity,
+                      double clearingPrice, int cutoffBidId, int cutoffQuantity,
+                      long closingVersion);
+
+  @Override
+  default List<OwnerRevenue> findRevenueByOwner() {
+    return findRevenueByOwner(AuctionLot.Status.CLOSED);
+  }
+
+  @Query("select new com.weareadaptive.auction.model.OwnerRevenue(a.ownerId, sum(a.totalRevenue)) "
+      + "from AuctionLot a where a.status = ?1 group by a.ownerId")
+  List<OwnerRevenue> findRevenueByOwner(AuctionLot.Status status);
+
+  @Override
+  @Query("select a from AuctionLot a where a.status = ?1")
+  List<AuctionLot> findByStatus(AuctionLot.Status status);
+
+  @Override
+  @Transactional(readOnly = true)
+  @Query(LOT_VIEW + "order by a.id")
+  List<AuctionLotView> findAllViews();
+
+  @Override
+  @Transactional(readOnly = true)
+  @Query(LOT_VIEW + "where a.id in ?1 order by a.id")
+  List<AuctionLotView> findViewsById(Collection<Integer> ids);
+
+  @Override
+  default List<AuctionLotView> findViewsBySymbolPrefix(String prefix) {
+    return findBySymbolLike(likePrefix(prefix)).stream().map(AuctionLotRow::toView).toList();
+  }
+
+  @Override
+  default List<AuctionLotView> findViewsBySymbolPrefixAndStatus(String prefix,
+                                                                AuctionLot.Status status) {
+    return findBySymbolLikeAndStatus(likePrefix(prefix), status.ordinal()).stream()
+        .map(AuctionLotRow::toView)
+        .toList();
+  }
+
+  // Native, because the symbol attribute holds a dictionary code and a JPQL parameter bound
+  // against it would go through the converter.
+  @Transactional(readOnly = true)
+  @Query(value = LOT_ROW + "WHERE symbol LIKE ?1 ESCAPE '\\' ORDER BY id", nativeQuery = true)
+  List<AuctionLotRow> findBySymbolLike(String pattern);
+
+  @Transactional(readOnly = true)
+  @Query(value = LOT_ROW + "WHERE symbol LIKE ?1 ESCAPE '\\' AND status = ?2 ORDER BY id",
+      nativeQuery = true)
+  List<AuctionLotRow> findBySymbolLikeAndStatus(String pattern, int status);
+
+  // The closed status is a literal so that the planner can use the partial index on closing time
+  // of the hot partition. Bids live in the same shard as their lot, so they move in one statement.
+  // Lots are partitioned on a hash of their id: sharded ids all share a residue modulo the shard
+  // count, which would leave partitions empty on every shard.
+  @Override
+  @Transactional
+  @Query(value = "WITH lots AS (UPDATE auction_lot SET archived = TRUE "
+      + "WHERE archived = FALSE AND id IN (SELECT id FROM auction_lot_hot "
+      + "WHERE status = 1 AND closing_time < ?1 "
+      + "AND mod(hashtext(id::text) & 2147483647, ?3) = ?2 LIMIT ?4) RETURNING id), "
+      + "bids AS (UPDATE auction_bid SET archived = TRUE "
+      + "WHERE archived = FALSE AND auction_id IN (SELECT id FROM lots)) "
+      + "SELECT count(*) FROM lots", nativeQuery = true)
+  int archiveClosedBefore(Instant closedBefore, int partition, int partitions, int limit);
+
+  private static String likePrefix(String prefix) {
+    return AuctionLot.normalizeSymbol(prefix).replaceAll("([\\\\%_])", "\\\\$1") + "%";
+  }
+
+  /**
+   * Interface projection of the native symbol searches.
+   */
+  interface AuctionLotRow {
+    int getId();
+
+    int getOwnerId();
+
+    String getSymbol();
+
+    double getMinPrice();
+
+    int getQuantity();
+
+    int getStatus();
+
+    int getClearingMode();
+
+    double getClearingPrice();
+
+    int getCutoffBidId();
+
+    int getCutoffQuantity();
+
+    long getClosingVersion();
+
+    default AuctionLotView toView() {
+      return new AuctionLotView(getId(), getOwnerId(), SymbolDictionary.encode(getSymbol()),
+          getMinPrice(), getQuantity(), AuctionLot.Status.values()[getStatus()],
+          AuctionLot.ClearingMode.values()[getClearingMode()], getClearingPrice(),
+          getCutoffBidId(), getCutoffQuantity(), getClosingVersion());
+    }
+  }
+}
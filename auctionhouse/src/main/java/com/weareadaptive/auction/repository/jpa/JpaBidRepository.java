@@ -0,0 +1,87 @@
+package com.weareadaptive.auction.repository.jpa;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
+import com.weareadaptive.auction.model.BidderActivity;
+import com.weareadaptive.auction.model.ClosedLotPrice;
+import com.weareadaptive.auction.repository.BidRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface JpaBidRepository extends JpaRepository<Bid, Integer>, BidRepository {
+  String BID_VIEW = "select new com.weareadaptive.auction.model.BidView(b.id, b.auctionId, "
+      + "b.userId, b.quantity, b.price, b.state, b.winQuantity, b.version) from AuctionBid b ";
+
+  @Override
+  @Query("select b from AuctionBid b where b.auctionId = ?1")
+  List<Bid> getAuctionBids(int auctionId);
+
+  @Override
+  @Query("select b from AuctionBid b where b.auctionId = ?1 order by b.price desc, b.id")
+  List<Bid> getBidsOrderedByPrice(int auctionId);
+
+  @Override
+  default List<Bid> getOrderedWinningBids(int auctionId) {
+    return getBidsInStateOrderedByPrice(auctionId, Bid.State.WIN);
+  }
+
+  @Query("select b from AuctionBid b where b.auctionId = ?1 and b.state = ?2 "
+      + "order by b.price desc, b.id")
+  List<Bid> getBidsInStateOrderedByPrice(int auctionId, Bid.State state);
+
+  @Override
+  @Query("select b from AuctionBid b where b.auctionId = ?1 and b.userId = ?2")
+  Optional<Bid> getBidByBidderId(int auctionId, int userId);
+
+  @Override
+  @Transactional(readOnly = true)
+  @Query(BID_VIEW + "where b.auctionId = ?1 order by b.id")
+  List<BidView> findViewsByAuctionId(int auctionId);
+
+  @Override
+  @Transactional(readOnly = true)
+  @Query(BID_VIEW + "where b.auctionId = ?1 and b.userId = ?2")
+  Optional<BidView> findViewByBidder(int auctionId, int userId);
+
+  @Override
+  @Transactional(readOnly = true)
+  @Query(BID_VIEW + "where b.userId = ?1")
+  List<BidView> findViewsByBidder(int userId);
+
+  @Override
+  @Transactional(readOnly = true)
+  @Query(BID_VIEW + ", AuctionLot a where a.id = b.auctionId and a.ownerId = ?1 order by b.id")
+  List<BidView> findViewsByLotOwner(int ownerId);
+
+  @Override
+  @Query(value = "SELECT * FROM auction_bid WHERE change_xid >= ?1 AND change_xid < ?2 "
+      + "AND (user_id = ?3 OR auction_id IN (SELECT id FROM auction_lot WHERE owner_id = ?3)) "
+      + "ORDER BY version", nativeQuery = true)
+  List<Bid> findVisibleChangedBetween(long from, long to, int userId);
+
+  @Override
+  default List<ClosedLotPrice> findClosedLotPrices(Instant since) {
+    return findClosedLotPrices(since, AuctionLot.Status.CLOSED, Bid.State.WIN);
+  }
+
+  @Query("select new com.weareadaptive.auction.model.ClosedLotPrice(a.id, a.symbol, "
+      + "a.closingTime, a.totalSoldQuantity, a.totalRevenue, min(b.price)) "
+      + "from AuctionLot a, AuctionBid b where b.auctionId = a.id and a.status = ?2 "
+      + "and b.state = ?3 and a.closingTime >= ?1 "
+      + "group by a.id, a.symbol, a.closingTime, a.totalSoldQuantity, a.totalRevenue "
+      + "order by a.closingTime")
+  List<ClosedLotPrice> findClosedLotPrices(Instant since, AuctionLot.Status status,
+                                           Bid.State state);
+
+  @Override
+  @Query("select new com.weareadaptive.auction.model.BidderActivity(b.userId, count(b), "
+      + "sum(b.winQuantity)) from AuctionBid b group by b.userId")
+  List<BidderActivity> findActivityByBidder();
+}
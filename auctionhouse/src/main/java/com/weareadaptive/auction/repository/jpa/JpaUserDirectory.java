@@ -0,0 +1,17 @@
+package com.weareadaptive.auction.repository.jpa;
+
+import com.weareadaptive.auction.model.User;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Directory operations of {@link JpaUserRepository} implemented over plain JDBC: keyset pages,
+ * full scans through a server side cursor and batched provisioning.
+ */
+public interface JpaUserDirectory {
+  List<User> findPage(int afterId, int limit, String organisation, Boolean blocked);
+
+  void forEachUser(String organisation, Boolean blocked, Consumer<User> consumer);
+
+  List<User> insertAllIgnoringDuplicates(List<User> users);
+}
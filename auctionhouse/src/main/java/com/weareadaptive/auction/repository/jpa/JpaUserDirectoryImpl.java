@@ -0,0 +1,119 @@
+package com.weareadaptive.auction.repository.jpa;
+
+import com.weareadaptive.auction.model.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class JpaUserDirectoryImpl implements JpaUserDirectory {
+  private static final int FETCH_SIZE = 1_000;
+  private static final int BATCH_SIZE = 500;
+  private static final String INSERT_USER = "INSERT INTO auction_user "
+      + "(username, password, first_name, last_name, organisation) VALUES (?, ?, ?, ?, ?) "
+      + "ON CONFLICT (username) DO NOTHING";
+  private static final String SELECT_USERS = "SELECT id, username, password, is_admin, "
+      + "first_name, last_name, organisation, blocked FROM auction_user WHERE id > ?";
+  private static final RowMapper<User> USER_MAPPER = (rs, rowNum) -> {
+    var user = new User(rs.getInt("id"), rs.getString("username"), rs.getString("password"),
+        rs.getString("first_name"), rs.getString("last_name"), rs.getString("organisation"));
+    user.setAdmin(rs.getBoolean("is_admin"));
+    user.setBlocked(rs.getBoolean("blocked"));
+    return user;
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final TransactionTemplate transaction;
+
+  public JpaUserDirectoryImpl(DataSource dataSource,
+                              PlatformTransactionManager transactionManager) {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(FETCH_SIZE);
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    transaction = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public List<User> findPage(int afterId, int limit, String organisation, Boolean blocked) {
+    var args = new ArrayList<>();
+    var sql = filteredQuery(afterId, organisation, blocked, args) + " ORDER BY id LIMIT ?";
+    args.add(limit);
+    return jdbcTemplate.query(sql, USER_MAPPER, args.toArray());
+  }
+
+  // The PostgreSQL driver only streams with a fetch size inside a transaction.
+  @Override
+  public void forEachUser(String organisation, Boolean blocked, Consumer<User> consumer) {
+    var args = new ArrayList<>();
+    var sql = filteredQuery(0, organisation, blocked, args) + " ORDER BY id";
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (var users = jdbcTemplate.queryForStream(sql, USER_MAPPER, args.toArray())) {
+        users.forEach(consumer);
+      }
+    });
+  }
+
+  @Override
+  public List<User> insertAllIgnoringDuplicates(List<User> users) {
+    return transaction.execute(status -> {
+      var counts = jdbcTemplate.batchUpdate(INSERT_USER, users, BATCH_SIZE, (ps, user) -> {
+        ps.setString(1, user.getUsername());
+        ps.setString(2, user.getPassword());
+        ps.setString(3, user.getFirstName());
+        ps.setString(4, user.getLastName());
+        ps.setString(5, user.getOrganisation());
+      });
+
+      var inserted = new ArrayList<User>(users.size());
+      var index = 0;
+      for (int[] batch : counts) {
+        for (int count : batch) {
+          if (count > 0) {
+            inserted.add(users.get(index));
+          }
+          index++;
+        }
+      }
+      assignIds(inserted);
+      return inserted;
+    });
+  }
+
+  private void assignIds(List<User> inserted) {
+    var byUsername = new HashMap<String, User>();
+    inserted.forEach(user -> byUsername.put(user.getUsername(), user));
+    for (int from = 0; from < inserted.size(); from += BATCH_SIZE) {
+      var usernames = inserted.subList(from, Math.min(from + BATCH_SIZE, inserted.size())).stream()
+          .map(User::getUsername)
+          .toArray(String[]::new);
+      jdbcTemplate.query(
+          "SELECT id, username FROM auction_user WHERE username = ANY (?)",
+          ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", usernames)),
+          rs -> {
+            byUsername.get(rs.getString("username")).setId(rs.getInt("id"));
+          });
+    }
+  }
+
+  private static String filteredQuery(int afterId, String organisation, Boolean blocked,
+                                      List<Object> args) {
+    var sql = new StringBuilder(SELECT_USERS);
+    args.add(afterId);
+    if (organisation != null) {
+      sql.append(" AND organisation = ?");
+      args.add(organisation);
+    }
+    if (blocked != null) {
+      sql.append(" AND blocked = ?");
+      args.add(blocked);
+    }
+    return sql.toString();
+  }
+}
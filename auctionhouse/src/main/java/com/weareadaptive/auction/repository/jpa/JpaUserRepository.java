@@ -0,0 +1,34 @@
+package com.weareadaptive.auction.repository.jpa;
+
+import com.weareadaptive.auction.model.User;
+import com.weareadaptive.auction.repository.UserRepository;
+import java.util.Optional;
+import javax.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JpaUserRepository extends JpaRepository<User, Integer>, UserRepository,
+    JpaUserDirectory {
+  @Override
+  @Query("select u from AuctionUser u where u.username=?1 and u.password=?2")
+  Optional<User> validateUsernamePassword(String username, String password);
+
+  @Override
+  @Transactional
+  @Modifying
+  @Query("update AuctionUser u set u.blocked = true where u.id = ?1")
+  int block(int id);
+
+  @Override
+  @Transactional
+  @Modifying
+  @Query("update AuctionUser u set u.blocked = false where u.id = ?1")
+  int unblock(int id);
+
+  @Override
+  @Query("select u from AuctionUser u where u.username = ?1")
+  User findByName(String ownerName);
+}
@@ -0,0 +1,347 @@
+package com.weareadaptive.auction.repository.memory;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingDouble;
+import static java.util.Comparator.comparingInt;
+import static java.util.Comparator.comparingLong;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
+import com.weareadaptive.auction.model.BidderActivity;
+import com.weareadaptive.auction.model.ClosedLotPrice;
+import com.weareadaptive.auction.model.IntIndex;
+import com.weareadaptive.auction.model.ObjectNotFoundException;
+import com.weareadaptive.auction.repository.BidRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bid store keeping one primitive column per field, in fixed size chunks, so that a stored
+ * bid costs a few dozen bytes and no object. {@link Bid} instances only exist at the API
+ * boundary. The bid id is the row number plus one. Rows are indexed by auction and by bidder,
+ * so that no read walks the whole store.
+ */
+@Repository
+@Profile("in-memory")
+public class ColumnarBidRepository implements BidRepository {
+  private static final int CHUNK_BITS = 16;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final Bid.State[] STATES = Bid.State.values();
+
+  private final StampedLock lock = new StampedLock();
+  private final IntIndex byAuction = new IntIndex();
+  private final IntIndex byBidder = new IntIndex();
+  private final VersionSequence versionSequence;
+  private final InMemoryAuctionRepository auctionRepository;
+  private int[][] auctionIds = new int[0][];
+  private int[][] userIds = new int[0][];
+  private int[][] quantities = new int[0][];
+  private int[][] winQuantities = new int[0][];
+  private double[][] prices = new double[0][];
+  private byte[][] states = new byte[0][];
+  private long[][] versions = new long[0][];
+  private volatile int size;
+
+  public ColumnarBidRepository(VersionSequence versionSequence,
+                               InMemoryAuctionRepository auctionRepository) {
+    this.versionSequence = versionSequence;
+    this.auctionRepository = auctionRepository;
+  }
+
+  @Override
+  public <S extends Bid> S save(S bid) {
+    var stamp = lock.writeLock();
+    try {
+      write(bid);
+      return bid;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public <S extends Bid> List<S> saveAll(Iterable<S> bids) {
+    var saved = new ArrayList<S>();
+    var stamp = lock.writeLock();
+    try {
+      for (S bid : bids) {
+        write(bid);
+        saved.add(bid);
+      }
+      return saved;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public Optional<Bid> findById(int id) {
+    var stamp = lock.readLock();
+    try {
+      return id > 0 && id <= size ? Optional.of(read(id - 1)) : Optional.empty();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  public long count() {
+    return size;
+  }
+
+  @Override
+  public List<Bid> getAuctionBids(int auctionId) {
+    var rows = byAuction.get(auctionId);
+    var bids = new ArrayList<Bid>(rows.length);
+    var stamp = lock.readLock();
+    try {
+      for (int id : rows) {
+        bids.add(read(id - 1));
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return bids;
+  }
+
+  @Override
+  public List<Bid> getBidsOrderedByPrice(int auctionId) {
+    var bids = getAuctionBids(auctionId);
+    bids.sort(comparingDouble(Bid::getPrice).reversed());
+    return bids;
+  }
+
+  @Override
+  public List<Bid> getOrderedWinningBids(int auctionId) {
+    var bids = getBidsOrderedByPrice(auctionId);
+    bids.removeIf(bid -> bid.getState() != Bid.State.WIN);
+    return bids;
+  }
+
+  @Override
+  public Optional<Bid> getBidByBidderId(int auctionId, int userId) {
+    var stamp = lock.readLock();
+    try {
+      var row = findRow(auctionId, userId);
+      return row < 0 ? Optional.empty() : Optional.of(read(row));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public List<BidView> findViewsByAuctionId(int auctionId) {
+    var rows = byAuction.get(auctionId);
+    var views = new ArrayList<BidView>(rows.length);
+    var stamp = lock.readLock();
+    try {
+      for (int id : rows) {
+        views.add(readView(id - 1));
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return views;
+  }
+
+  @Override
+  public Optional<BidView> findViewByBidder(int auctionId, int userId) {
+    var stamp = lock.readLock();
+    try {
+      var row = findRow(auctionId, userId);
+      return row < 0 ? Optional.empty() : Optional.of(readView(row));
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public List<BidView> findViewsByBidder(int userId) {
+    var rows = byBidder.get(userId);
+    var views = new ArrayList<BidView>(rows.length);
+    var stamp = lock.readLock();
+    try {
+      for (int id : rows) {
+        views.add(readView(id - 1));
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return views;
+  }
+
+  @Override
+  public List<BidView> findViewsByLotOwner(int ownerId) {
+    var views = new ArrayList<BidView>();
+    for (AuctionLot auctionLot : auctionRepository.findByOwner(ownerId)) {
+      views.addAll(findViewsByAuctionId(auctionLot.getId()));
+    }
+    views.sort(comparingInt(BidView::id));
+    return views;
+  }
+
+  @Override
+  public List<Bid> findVisibleChangedBetween(long from, long to, int userId) {
+    var ownedLots = auctionRepository.findByOwner(userId).stream()
+        .flatMapToInt(auctionLot -> byAuction.stream(auctionLot.getId()));
+    var rows = IntStream.concat(byBidder.stream(userId), ownedLots).distinct().toArray();
+    var bids = new ArrayList<Bid>();
+    var stamp = lock.readLock();
+    try {
+      for (int id : rows) {
+        var version = cell(versions, id - 1);
+        if (version >= from && version < to) {
+          bids.add(read(id - 1));
+        }
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    bids.sort(comparingLong(Bid::getVersion));
+    return bids;
+  }
+
+  @Override
+  public List<ClosedLotPrice> findClosedLotPrices(Instant since) {
+    return auctionRepository.findByStatus(AuctionLot.Status.CLOSED).stream()
+        .filter(auctionLot -> !auctionLot.getClosingTime().isBefore(since))
+        .flatMap(auctionLot -> {
+          var winningBids = getOrderedWinningBids(auctionLot.getId());
+          if (winningBids.isEmpty()) {
+            return Stream.empty();
+          }
+          return Stream.of(new ClosedLotPrice(
+              auctionLot.getId(),
+              auctionLot.getSymbolCode(),
+              auctionLot.getClosingTime(),
+              auctionLot.getTotalSoldQuantity(),
+              auctionLot.getTotalRevenue(),
+              winningBids.get(winningBids.size() - 1).getPrice()));
+        })
+        .sorted(comparing(ClosedLotPrice::closingTime))
+        .toList();
+  }
+
+  @Override
+  public List<BidderActivity> findActivityByBidder() {
+    var activity = new ArrayList<BidderActivity>();
+    var stamp = lock.readLock();
+    try {
+      byBidder.keys().forEach(userId -> {
+        var rows = byBidder.get(userId);
+        var quantityWon = 0L;
+        for (int id : rows) {
+          quantityWon += cell(winQuantities, id - 1);
+        }
+        activity.add(new BidderActivity(userId, rows.length, quantityWon));
+      });
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    return activity;
+  }
+
+  private void write(Bid bid) {
+    int row;
+    if (bid.getId() == 0) {
+      if (findRow(bid.getAuctionId(), bid.getUserId()) >= 0) {
+        throw new DuplicateKeyException(
+            "User " + bid.getUserId() + " already bid on auction " + bid.getAuctionId());
+      }
+      row = size;
+      if ((row & CHUNK_MASK) == 0 && row >> CHUNK_BITS == auctionIds.length) {
+        addChunk();
+      }
+      size++;
+      bid.setId(row + 1);
+      byAuction.add(bid.getAuctionId(), bid.getId());
+      byBidder.add(bid.getUserId(), bid.getId());
+    } else if (bid.getId() <= size) {
+      row = bid.getId() - 1;
+      if (cell(auctionIds, row) != bid.getAuctionId() || cell(userIds, row) != bid.getUserId()) {
+        throw new IllegalArgumentException("A bid cannot move to another auction or bidder");
+      }
+    } else {
+      throw new ObjectNotFoundException("Bid with id " + bid.getId() + " doesn't exist");
+    }
+
+    var chunk = row >> CHUNK_BITS;
+    var offset = row & CHUNK_MASK;
+    auctionIds[chunk][offset] = bid.getAuctionId();
+    userIds[chunk][offset] = bid.getUserId();
+    quantities[chunk][offset] = bid.getQuantity();
+    winQuantities[chunk][offset] = bid.getWinQuantity();
+    prices[chunk][offset] = bid.getPrice();
+    states[chunk][offset] = (byte) bid.getState().ordinal();
+    versions[chunk][offset] = versionSequence.next();
+    bid.setVersion(versions[chunk][offset]);
+    versionSequence.publish(versions[chunk][offset]);
+  }
+
+  private int findRow(int auctionId, int userId) {
+    for (int id : byAuction.get(auctionId)) {
+      if (cell(userIds, id - 1) == userId) {
+        return id - 1;
+      }
+    }
+    return -1;
+  }
+
+  private Bid read(int row) {
+    var chunk = row >> CHUNK_BITS;
+    var offset = row & CHUNK_MASK;
+    var bid = new Bid();
+    bid.setId(row + 1);
+    bid.setAuctionId(auctionIds[chunk][offset]);
+    bid.setUserId(userIds[chunk][offset]);
+    bid.setQuantity(quantities[chunk][offset]);
+    bid.setWinQuantity(winQuantities[chunk][offset]);
+    bid.setPrice(prices[chunk][offset]);
+    bid.setState(STATES[states[chunk][offset]]);
+    bid.setVersion(versions[chunk][offset]);
+    return bid;
+  }
+
+  private BidView readView(int row) {
+    var chunk = row >> CHUNK_BITS;
+    var offset = row & CHUNK_MASK;
+    return new BidView(row + 1, auctionIds[chunk][offset], userIds[chunk][offset],
+        quantities[chunk][offset], prices[chunk][offset], STATES[states[chunk][offset]],
+        winQuantities[chunk][offset], versions[chunk][offset]);
+  }
+
+  private static int cell(int[][] column, int row) {
+    return column[row >> CHUNK_BITS][row & CHUNK_MASK];
+  }
+
+  private static long cell(long[][] column, int row) {
+    return column[row >> CHUNK_BITS][row & CHUNK_MASK];
+  }
+
+  private void addChunk() {
+    var chunks = auctionIds.length + 1;
+    auctionIds = Arrays.copyOf(auctionIds, chunks);
+    auctionIds[chunks - 1] = new int[CHUNK_SIZE];
+    userIds = Arrays.copyOf(userIds, chunks);
+    userIds[chunks - 1] = new int[CHUNK_SIZE];
+    quantities = Arrays.copyOf(quantities, chunks);
+    quantities[chunks - 1] = new int[CHUNK_SIZE];
+    winQuantities = Arrays.copyOf(winQuantities, chunks);
+    winQuantities[chunks - 1] = new int[CHUNK_SIZE];
+    prices = Arrays.copyOf(prices, chunks);
+    prices[chunks - 1] = new double[CHUNK_SIZE];
+    states = Arrays.copyOf(states, chunks);
+    states[chunks - 1] = new byte[CHUNK_SIZE];
+    versions = Arrays.copyOf(versions, chunks);
+    versions[chunks - 1] = new long[CHUNK_SIZE];
+  }
+}
@@ -0,0 +1,186 @@
+package com.weareadaptive.auction.repository.memory;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.Comparator.comparingLong;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingDouble;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotState;
+import com.weareadaptive.auction.model.AuctionLotView;
+import com.weareadaptive.auction.model.ObjectNotFoundException;
+import com.weareadaptive.auction.model.OwnerRevenue;
+import com.weareadaptive.auction.model.SymbolDictionary;
+import com.weareadaptive.auction.repository.AuctionRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("in-memory")
+public class InMemoryAuctionRepository implements AuctionRepository {
+  private static final int LOCK_STRIPES = 64;
+
+  private final AuctionLotState state = new AuctionLotState();
+  private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+  private final VersionSequence versionSequence;
+
+  public InMemoryAuctionRepository(VersionSequence versionSequence) {
+    this.versionSequence = versionSequence;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  @Override
+  public <S extends AuctionLot> S save(S auctionLot) {
+    if (auctionLot.getId() == 0) {
+      auctionLot.setId(state.nextId());
+    }
+    var version = versionSequence.next();
+    try {
+      auctionLot.setVersion(version);
+      state.put(auctionLot);
+    } finally {
+      versionSequence.publish(version);
+    }
+    return auctionLot;
+  }
+
+  @Override
+  public Optional<AuctionLot> findById(Integer id) {
+    return Optional.ofNullable(state.get(id));
+  }
+
+  @Override
+  public List<AuctionLot> findAll() {
+    return state.stream().sorted(comparingInt(AuctionLot::getId)).toList();
+  }
+
+  @Override
+  public List<AuctionLot> findAllById(Iterable<Integer> ids) {
+    var auctionLots = new ArrayList<AuctionLot>();
+    for (Integer id : ids) {
+      findById(id).ifPresent(auctionLots::add);
+    }
+    return auctionLots;
+  }
+
+  @Override
+  public List<OwnerRevenue> findRevenueByOwner() {
+    return findByStatus(AuctionLot.Status.CLOSED).stream()
+        .collect(groupingBy(AuctionLot::getOwnerId, summingDouble(AuctionLot::getTotalRevenue)))
+        .entrySet().stream()
+        .map(entry -> new OwnerRevenue(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  @Override
+  public List<AuctionLot> findByStatus(AuctionLot.Status status) {
+    return state.stream().filter(auctionLot -> auctionLot.getStatus() == status).toList();
+  }
+
+  @Override
+  public List<AuctionLotView> findAllViews() {
+    return views(findAll().stream());
+  }
+
+  @Override
+  public List<AuctionLotView> findViewsById(Collection<Integer> ids) {
+    return views(ids.stream().map(state::get).filter(Objects::nonNull));
+  }
+
+  @Override
+  public List<AuctionLotView> findViewsBySymbolPrefix(String prefix) {
+    return views(findBySymbolPrefix(prefix));
+  }
+
+  @Override
+  public List<AuctionLotView> findViewsBySymbolPrefixAndStatus(String prefix,
+                                                               AuctionLot.Status status) {
+    return views(findBySymbolPrefix(prefix).filter(auctionLot -> auctionLot.getStatus() == status));
+  }
+
+  @Override
+  public Optional<AuctionLot> validateAuctionOwner(int auctionId, int userId) {
+    return findById(auctionId).filter(auctionLot -> auctionLot.getOwnerId() == userId);
+  }
+
+  // Memory has nothing to roll back, so the lock is all there is to the transaction.
+  @Override
+  public <T> T inLotTransaction(int auctionId, LotLock lock,
+                                Function<AuctionLot.Status, T> work) {
+    var stripe = locks[Math.floorMod(auctionId, LOCK_STRIPES)];
+    var held = lock == LotLock.EXCLUSIVE ? stripe.writeLock() : stripe.readLock();
+    held.lock();
+    try {
+      var auctionLot = state.get(auctionId);
+      if (auctionLot == null) {
+        throw new ObjectNotFoundException("Auction with id " + auctionId + " doesn't exist");
+      }
+      return work.apply(auctionLot.getStatus());
+    } finally {
+      held.unlock();
+    }
+  }
+
+  @Override
+  public synchronized boolean closeIfOpen(AuctionLot auctionLot) {
+    var stored = state.get(auctionLot.getId());
+    if (stored == null || stored.getStatus() != AuctionLot.Status.OPENED) {
+      return false;
+    }
+    save(auctionLot);
+    return true;
+  }
+
+  /**
+   * In memory the position of a change is its version.
+   */
+  @Override
+  public long changeWatermark() {
+    return versionSequence.watermark();
+  }
+
+  @Override
+  public List<AuctionLot> findChangedBetween(long from, long to) {
+    return state.stream()
+        .filter(auctionLot -> auctionLot.getVersion() >= from && auctionLot.getVersion() < to)
+        .sorted(comparingLong(AuctionLot::getVersion))
+        .toList();
+  }
+
+  public List<AuctionLot> findByOwner(int ownerId) {
+    return state.findByOwner(ownerId).sorted(comparingInt(AuctionLot::getId)).toList();
+  }
+
+  private Stream<AuctionLot> findBySymbolPrefix(String prefix) {
+    return SymbolDictionary.findByPrefix(AuctionLot.normalizeSymbol(prefix))
+        .mapToObj(state::findBySymbol)
+        .flatMap(identity());
+  }
+
+  private static List<AuctionLotView> views(Stream<AuctionLot> auctionLots) {
+    return auctionLots.sorted(comparingInt(AuctionLot::getId)).map(AuctionLotView::of).toList();
+  }
+
+  public boolean isOwner(int auctionId, int userId) {
+    return validateAuctionOwner(auctionId, userId).isPresent();
+  }
+
+  // Memory has no cold tier to move lots to.
+  @Override
+  public int archiveClosedBefore(Instant closedBefore, int partition, int partitions, int limit) {
+    return 0;
+  }
+}
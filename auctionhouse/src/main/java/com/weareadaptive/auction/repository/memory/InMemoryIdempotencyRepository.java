@@ -0,0 +1,58 @@
+package com.weareadaptive.auction.repository.memory;
+
+import com.weareadaptive.auction.model.StoredResponse;
+import com.weareadaptive.auction.repository.IdempotencyRepository;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("in-memory")
+public class InMemoryIdempotencyRepository implements IdempotencyRepository {
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean claim(String username, String key, String requestPath, String requestHash,
+                       Instant expiredBefore) {
+    var claimed = new Entry(requestPath, requestHash, null, Instant.now());
+    var current = entries.merge(id(username, key), claimed, (previous, next) ->
+        previous.createdAt().isBefore(expiredBefore) ? next : previous);
+    return current == claimed;
+  }
+
+  @Override
+  public Optional<StoredResponse> findCompleted(String username, String key) {
+    return Optional.ofNullable(entries.get(id(username, key))).map(Entry::response);
+  }
+
+  @Override
+  public void complete(String username, String key, StoredResponse response) {
+    entries.computeIfPresent(id(username, key),
+        (id, entry) -> new Entry(entry.requestPath(), entry.requestHash(), response,
+            entry.createdAt()));
+  }
+
+  @Override
+  public void release(String username, String key) {
+    entries.computeIfPresent(id(username, key),
+        (id, entry) -> entry.response() == null ? null : entry);
+  }
+
+  @Override
+  public int deleteCreatedBefore(Instant instant) {
+    var before = entries.size();
+    entries.values().removeIf(entry -> entry.createdAt().isBefore(instant));
+    return before - entries.size();
+  }
+
+  private static String id(String username, String key) {
+    return username + '\n' + key;
+  }
+
+  private record Entry(String requestPath, String requestHash, StoredResponse response,
+                       Instant createdAt) {
+  }
+}
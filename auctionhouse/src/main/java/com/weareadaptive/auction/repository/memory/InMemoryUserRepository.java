@@ -0,0 +1,120 @@
+package com.weareadaptive.auction.repository.memory;
+
+import static java.util.Comparator.comparingInt;
+
+import com.weareadaptive.auction.model.BusinessException;
+import com.weareadaptive.auction.model.User;
+import com.weareadaptive.auction.model.UserState;
+import com.weareadaptive.auction.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("in-memory")
+public class InMemoryUserRepository implements UserRepository {
+  private final UserState state = new UserState();
+
+  public InMemoryUserRepository() {
+    var admin = new User(state.nextId(), "ADMIN", "adminpassword", "admin", "admin", "Adaptive");
+    admin.setAdmin(true);
+    state.add(admin);
+  }
+
+  @Override
+  public <S extends User> S save(S user) {
+    if (user.getId() == 0) {
+      user.setId(state.nextId());
+    }
+    state.put(user);
+    return user;
+  }
+
+  @Override
+  public Optional<User> findById(Integer id) {
+    return Optional.ofNullable(state.get(id));
+  }
+
+  @Override
+  public List<User> findAll() {
+    return state.stream().sorted(comparingInt(User::getId)).toList();
+  }
+
+  @Override
+  public List<User> findPage(int afterId, int limit, String organisation, Boolean blocked) {
+    var page = new ArrayList<User>(limit);
+    var lastId = state.lastId();
+    for (int id = afterId + 1; id <= lastId && page.size() < limit; id++) {
+      var user = state.get(id);
+      if (matches(user, organisation, blocked)) {
+        page.add(user);
+      }
+    }
+    return page;
+  }
+
+  @Override
+  public void forEachUser(String organisation, Boolean blocked, Consumer<User> consumer) {
+    var lastId = state.lastId();
+    for (int id = 1; id <= lastId; id++) {
+      var user = state.get(id);
+      if (matches(user, organisation, blocked)) {
+        consumer.accept(user);
+      }
+    }
+  }
+
+  @Override
+  public List<User> insertAllIgnoringDuplicates(List<User> users) {
+    var inserted = new ArrayList<User>(users.size());
+    for (User user : users) {
+      if (state.findByUsername(user.getUsername()) != null) {
+        continue;
+      }
+      user.setId(state.nextId());
+      try {
+        state.add(user);
+        inserted.add(user);
+      } catch (BusinessException e) {
+        user.setId(0);
+      }
+    }
+    return inserted;
+  }
+
+  private static boolean matches(User user, String organisation, Boolean blocked) {
+    return user != null
+        && (organisation == null || organisation.equals(user.getOrganisation()))
+        && (blocked == null || blocked == user.isBlocked());
+  }
+
+  @Override
+  public Optional<User> validateUsernamePassword(String username, String password) {
+    return Optional.ofNullable(state.findByUsername(username))
+        .filter(user -> user.validatePassword(password));
+  }
+
+  @Override
+  public int block(int id) {
+    return findById(id).map(user -> {
+      user.block();
+      return 1;
+    }).orElse(0);
+  }
+
+  @Override
+  public int unblock(int id) {
+    return findById(id).map(user -> {
+      user.unblock();
+      return 1;
+    }).orElse(0);
+  }
+
+  @Override
+  public User findByName(String ownerName) {
+    return state.findByUsername(ownerName);
+  }
+}
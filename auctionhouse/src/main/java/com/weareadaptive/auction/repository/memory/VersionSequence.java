@@ -0,0 +1,34 @@
+package com.weareadaptive.auction.repository.memory;
+
+import java.util.TreeSet;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versions of in-memory writes. A version is pending from {@link #next()} until the write is
+ * stored and {@link #publish(long)} is called, so that the change feed does not move past a
+ * write that is not visible yet.
+ */
+@Component
+@Profile("in-memory")
+public class VersionSequence {
+  private final TreeSet<Long> pending = new TreeSet<>();
+  private long current;
+
+  public synchronized long next() {
+    current++;
+    pending.add(current);
+    return current;
+  }
+
+  public synchronized void publish(long version) {
+    pending.remove(version);
+  }
+
+  /**
+   * Every version below the watermark is stored.
+   */
+  public synchronized long watermark() {
+    return pending.isEmpty() ? current + 1 : pending.first();
+  }
+}
@@ -0,0 +1,161 @@
+package com.weareadaptive.auction.repository.sharded;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingDouble;
+
+import com.weareadaptive.auction.datasource.ShardRouting;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotView;
+import com.weareadaptive.auction.model.BusinessException;
+import com.weareadaptive.auction.model.OwnerRevenue;
+import com.weareadaptive.auction.repository.AuctionRepository;
+import com.weareadaptive.auction.repository.jpa.JpaAuctionRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keeps each lot on the shard encoded in its id. Queries not keyed by a lot are sent to every
+ * shard and merged.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(prefix = "auction.sharding", name = "shards[0].url")
+public class ShardedAuctionRepository implements AuctionRepository {
+  static final String VERSIONS_NOT_ORDERED =
+      "sinceVersion is not supported: versions are not ordered across shards";
+
+  private final AuctionRepository delegate;
+  private final ShardRouting shards;
+
+  public ShardedAuctionRepository(JpaAuctionRepository delegate, ShardRouting shards) {
+    this.delegate = delegate;
+    this.shards = shards;
+  }
+
+  @Override
+  public <S extends AuctionLot> S save(S auctionLot) {
+    var shard = auctionLot.getId() == 0
+        ? shards.nextShard()
+        : shards.shardOf(auctionLot.getId());
+    return shards.on(shard, () -> delegate.save(auctionLot));
+  }
+
+  @Override
+  public Optional<AuctionLot> findById(Integer id) {
+    return shards.on(shards.shardOf(id), () -> delegate.findById(id));
+  }
+
+  @Override
+  public List<AuctionLot> findAll() {
+    return sortedById(shards.onEach(delegate::findAll));
+  }
+
+  @Override
+  public List<AuctionLot> findAllById(Iterable<Integer> ids) {
+    Map<Integer, List<Integer>> idsByShard = StreamSupport.stream(ids.spliterator(), false)
+        .collect(groupingBy(shards::shardOf));
+    var auctionLots = new ArrayList<AuctionLot>();
+    idsByShard.forEach((shard, shardIds) ->
+        auctionLots.addAll(shards.on(shard, () -> delegate.findAllById(shardIds))));
+    return auctionLots;
+  }
+
+  @Override
+  public List<AuctionLot> findByStatus(AuctionLot.Status status) {
+    return shards.onEach(() -> delegate.findByStatus(status));
+  }
+
+  @Override
+  public List<AuctionLotView> findAllViews() {
+    return sortedViews(shards.onEach(delegate::findAllViews));
+  }
+
+  @Override
+  public List<AuctionLotView> findViewsById(Collection<Integer> ids) {
+    Map<Integer, List<Integer>> idsByShard = ids.stream().collect(groupingBy(shards::shardOf));
+    var views = new ArrayList<AuctionLotView>();
+    idsByShard.forEach((shard, shardIds) ->
+        views.addAll(shards.on(shard, () -> delegate.findViewsById(shardIds))));
+    return sortedViews(views);
+  }
+
+  @Override
+  public List<AuctionLotView> findViewsBySymbolPrefix(String prefix) {
+    return sortedViews(shards.onEach(() -> delegate.findViewsBySymbolPrefix(prefix)));
+  }
+
+  @Override
+  public List<AuctionLotView> findViewsBySymbolPrefixAndStatus(String prefix,
+                                                               AuctionLot.Status status) {
+    return sortedViews(
+        shards.onEach(() -> delegate.findViewsBySymbolPrefixAndStatus(prefix, status)));
+  }
+
+  @Override
+  public Optional<AuctionLot> validateAuctionOwner(int auctionId, int userId) {
+    return shards.on(shards.shardOf(auctionId),
+        () -> delegate.validateAuctionOwner(auctionId, userId));
+  }
+
+  /**
+   * Each shard has its own transactions and versions, so a position on one shard says nothing
+   * about which changes of another shard a client has already read.
+   */
+  @Override
+  public long changeWatermark() {
+    throw new BusinessException(VERSIONS_NOT_ORDERED);
+  }
+
+  @Override
+  public List<AuctionLot> findChangedBetween(long from, long to) {
+    throw new BusinessException(VERSIONS_NOT_ORDERED);
+  }
+
+  @Override
+  public <T> T inLotTransaction(int auctionId, LotLock lock,
+                                Function<AuctionLot.Status, T> work) {
+    return shards.on(shards.shardOf(auctionId),
+        () -> delegate.inLotTransaction(auctionId, lock, work));
+  }
+
+  @Override
+  public boolean closeIfOpen(AuctionLot auctionLot) {
+    return shards.on(shards.shardOf(auctionLot.getId()), () -> delegate.closeIfOpen(auctionLot));
+  }
+
+  @Override
+  public List<OwnerRevenue> findRevenueByOwner() {
+    return shards.onEach(delegate::findRevenueByOwner).stream()
+        .collect(groupingBy(OwnerRevenue::ownerId, summingDouble(OwnerRevenue::revenue)))
+        .entrySet().stream()
+        .map(entry -> new OwnerRevenue(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  @Override
+  public int archiveClosedBefore(Instant closedBefore, int partition, int partitions, int limit) {
+    return shards.onEach(() -> List.of(
+            delegate.archiveClosedBefore(closedBefore, partition, partitions, limit)))
+        .stream().mapToInt(Integer::intValue).sum();
+  }
+
+  private static List<AuctionLot> sortedById(List<AuctionLot> auctionLots) {
+    auctionLots.sort(comparingInt(AuctionLot::getId));
+    return auctionLots;
+  }
+
+  private static List<AuctionLotView> sortedViews(List<AuctionLotView> views) {
+    views.sort(comparingInt(AuctionLotView::id));
+    return views;
+  }
+}
@@ -0,0 +1,122 @@
+package com.weareadaptive.auction.repository.sharded;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.groupingBy;
+
+import com.weareadaptive.auction.datasource.ShardRouting;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
+import com.weareadaptive.auction.model.BidderActivity;
+import com.weareadaptive.auction.model.BusinessException;
+import com.weareadaptive.auction.model.ClosedLotPrice;
+import com.weareadaptive.auction.repository.BidRepository;
+import com.weareadaptive.auction.repository.jpa.JpaBidRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stores bids on the shard of their lot, so placing, amending and settling the bids of one lot
+ * never spans shards.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(prefix = "auction.sharding", name = "shards[0].url")
+public class ShardedBidRepository implements BidRepository {
+  private final BidRepository delegate;
+  private final ShardRouting shards;
+
+  public ShardedBidRepository(JpaBidRepository delegate, ShardRouting shards) {
+    this.delegate = delegate;
+    this.shards = shards;
+  }
+
+  @Override
+  public <S extends Bid> S save(S bid) {
+    return shards.on(shards.shardOf(bid.getAuctionId()), () -> delegate.save(bid));
+  }
+
+  @Override
+  public <S extends Bid> List<S> saveAll(Iterable<S> bids) {
+    var bidsByShard = StreamSupport.stream(bids.spliterator(), false)
+        .collect(groupingBy(bid -> shards.shardOf(bid.getAuctionId())));
+    var saved = new ArrayList<S>();
+    bidsByShard.forEach((shard, shardBids) ->
+        saved.addAll(shards.on(shard, () -> delegate.saveAll(shardBids))));
+    return saved;
+  }
+
+  @Override
+  public List<Bid> getAuctionBids(int auctionId) {
+    return shards.on(shards.shardOf(auctionId), () -> delegate.getAuctionBids(auctionId));
+  }
+
+  @Override
+  public List<Bid> getBidsOrderedByPrice(int auctionId) {
+    return shards.on(shards.shardOf(auctionId), () -> delegate.getBidsOrderedByPrice(auctionId));
+  }
+
+  @Override
+  public List<Bid> getOrderedWinningBids(int auctionId) {
+    return shards.on(shards.shardOf(auctionId), () -> delegate.getOrderedWinningBids(auctionId));
+  }
+
+  @Override
+  public Optional<Bid> getBidByBidderId(int auctionId, int userId) {
+    return shards.on(shards.shardOf(auctionId),
+        () -> delegate.getBidByBidderId(auctionId, userId));
+  }
+
+  @Override
+  public List<BidView> findViewsByAuctionId(int auctionId) {
+    return shards.on(shards.shardOf(auctionId), () -> delegate.findViewsByAuctionId(auctionId));
+  }
+
+  @Override
+  public Optional<BidView> findViewByBidder(int auctionId, int userId) {
+    return shards.on(shards.shardOf(auctionId),
+        () -> delegate.findViewByBidder(auctionId, userId));
+  }
+
+  @Override
+  public List<BidView> findViewsByBidder(int userId) {
+    return shards.onEach(() -> delegate.findViewsByBidder(userId));
+  }
+
+  @Override
+  public List<BidView> findViewsByLotOwner(int ownerId) {
+    var views = new ArrayList<>(shards.onEach(() -> delegate.findViewsByLotOwner(ownerId)));
+    views.sort(comparingInt(BidView::id));
+    return views;
+  }
+
+  @Override
+  public List<Bid> findVisibleChangedBetween(long from, long to, int userId) {
+    throw new BusinessException(ShardedAuctionRepository.VERSIONS_NOT_ORDERED);
+  }
+
+  @Override
+  public List<ClosedLotPrice> findClosedLotPrices(Instant since) {
+    var prices = new ArrayList<>(shards.onEach(() -> delegate.findClosedLotPrices(since)));
+    prices.sort(comparing(ClosedLotPrice::closingTime));
+    return prices;
+  }
+
+  @Override
+  public List<BidderActivity> findActivityByBidder() {
+    return shards.onEach(delegate::findActivityByBidder).stream()
+        .collect(groupingBy(BidderActivity::userId))
+        .entrySet().stream()
+        .map(entry -> new BidderActivity(
+            entry.getKey(),
+            entry.getValue().stream().mapToLong(BidderActivity::bids).sum(),
+            entry.getValue().stream().mapToLong(BidderActivity::quantityWon).sum()))
+        .toList();
+  }
+}
@@ -0,0 +1,49 @@
+package com.weareadaptive.auction.security;
+
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits requests failing authentication, anonymous ones included, per client address. It runs
+ * ahead of authentication, so a client that used up its failures is turned away before its
+ * credentials reach the database, and only a failed attempt takes a token. The address is the
+ * one the servlet container reports, behind a proxy set {@code server.forward-headers-strategy}.
+ */
+public class FailedAuthenticationLimitFilter extends OncePerRequestFilter {
+  private final RateLimiter rateLimiter;
+  private final ObjectMapper objectMapper;
+
+  public FailedAuthenticationLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+    this.rateLimiter = rateLimiter;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    if (!rateLimiter.isEnabled()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    var client = request.getRemoteAddr();
+    var waitNanos = rateLimiter.waitNanos(RateLimiter.Endpoint.FAILED_AUTHENTICATION, client);
+    if (waitNanos > 0) {
+      RateLimitFilter.reject(response, waitNanos, objectMapper);
+      return;
+    }
+
+    filterChain.doFilter(request, response);
+    if (response.getStatus() == UNAUTHORIZED.value()) {
+      rateLimiter.tryAcquire(RateLimiter.Endpoint.FAILED_AUTHENTICATION, client);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.weareadaptive.auction.security;
+
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weareadaptive.auction.exception.Problem;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies the per user rate limits once the request is authenticated, keyed by the verified
+ * principal, so that a token naming another user cannot drain that user's buckets. Requests
+ * failing authentication are limited by {@link FailedAuthenticationLimitFilter}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+  private static final Pattern BID_PATH = Pattern.compile("/auctions/\\d+/bid");
+
+  private final RateLimiter rateLimiter;
+  private final ObjectMapper objectMapper;
+
+  public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+    this.rateLimiter = rateLimiter;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    var endpoint = endpointOf(request);
+    var authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (!rateLimiter.isEnabled() || endpoint == null || authentication == null
+        || !authentication.isAuthenticated()
+        || authentication instanceof AnonymousAuthenticationToken) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    var waitNanos = rateLimiter.tryAcquire(endpoint, authentication.getName());
+    if (waitNanos == 0) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    reject(response, waitNanos, objectMapper);
+  }
+
+  static void reject(HttpServletResponse response, long waitNanos, ObjectMapper objectMapper)
+      throws IOException {
+    var retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+        / TimeUnit.SECONDS.toNanos(1));
+    response.setStatus(TOO_MANY_REQUESTS.value());
+    response.setHeader(RETRY_AFTER, String.valueOf(retryAfter));
+    response.setContentType(APPLICATION_PROBLEM_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), new Problem(
+        TOO_MANY_REQUESTS.value(),
+        TOO_MANY_REQUESTS.name(),
+        "Rate limit exceeded, retry in " + retryAfter + "s"));
+  }
+
+  private static RateLimiter.Endpoint endpointOf(HttpServletRequest request) {
+    var path = request.getRequestURI().substring(request.getContextPath().length());
+    var method = request.getMethod();
+    if (BID_PATH.matcher(path).matches() && !"GET".equals(method)) {
+      return RateLimiter.Endpoint.BID;
+    }
+    if ("/auctions".equals(path) && "POST".equals(method)) {
+      return RateLimiter.Endpoint.CREATE_AUCTION;
+    }
+    return null;
+  }
+}
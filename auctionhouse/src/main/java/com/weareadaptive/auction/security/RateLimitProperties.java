@@ -0,0 +1,22 @@
+package com.weareadaptive.auction.security;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Per user limits of the rate limited endpoints, and the per client address limit of requests
+ * failing authentication. A key may burst up to {@code capacity} requests, then
+ * {@code perSecond} requests a second.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue Limit bid,
+                                  @DefaultValue Limit createAuction,
+                                  @DefaultValue Limit failedAuthentication,
+                                  @DefaultValue("1m") Duration sweepInterval) {
+  public record Limit(@DefaultValue("50") int capacity, @DefaultValue("20") double perSecond) {
+  }
+}
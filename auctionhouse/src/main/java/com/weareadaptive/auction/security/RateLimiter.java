@@ -0,0 +1,95 @@
+package com.weareadaptive.auction.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets per endpoint and key: the authenticated username, or the client address for
+ * failed authentication. Full buckets are swept periodically, so memory follows the
+ * number of recently active users rather than all users ever seen.
+ */
+@Component
+public class RateLimiter {
+  private final Map<Endpoint, Map<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+  private final RateLimitProperties properties;
+  private final ScheduledExecutorService sweeper;
+
+  public RateLimiter(RateLimitProperties properties) {
+    this.properties = properties;
+    for (Endpoint endpoint : Endpoint.values()) {
+      buckets.put(endpoint, new ConcurrentHashMap<>());
+    }
+    sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "rate-limit-sweeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var sweepMillis = properties.sweepInterval().toMillis();
+    sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Returns 0 when the request may proceed, otherwise the nanoseconds until it would.
+   */
+  public long tryAcquire(Endpoint endpoint, String key) {
+    var refillNanos = refillNanos(endpoint);
+    var now = System.nanoTime();
+    return buckets.get(endpoint)
+        .computeIfAbsent(key, newKey -> new TokenBucket(now))
+        .tryTake(now, refillNanos, refillNanos * endpoint.limit(properties).capacity());
+  }
+
+  /**
+   * Same as {@link #tryAcquire} without taking a token.
+   */
+  public long waitNanos(Endpoint endpoint, String key) {
+    var bucket = buckets.get(endpoint).get(key);
+    if (bucket == null) {
+      return 0;
+    }
+    var refillNanos = refillNanos(endpoint);
+    return bucket.waitNanos(System.nanoTime(), refillNanos,
+        refillNanos * endpoint.limit(properties).capacity());
+  }
+
+  public int size() {
+    return buckets.values().stream().mapToInt(Map::size).sum();
+  }
+
+  public void sweep() {
+    var now = System.nanoTime();
+    buckets.values().forEach(users -> users.values().removeIf(bucket -> bucket.isFull(now)));
+  }
+
+  private long refillNanos(Endpoint endpoint) {
+    return (long) (TimeUnit.SECONDS.toNanos(1) / endpoint.limit(properties).perSecond());
+  }
+
+  @PreDestroy
+  public void stop() {
+    sweeper.shutdownNow();
+  }
+
+  public enum Endpoint {
+    BID,
+    CREATE_AUCTION,
+    FAILED_AUTHENTICATION;
+
+    private RateLimitProperties.Limit limit(RateLimitProperties properties) {
+      return switch (this) {
+        case BID -> properties.bid();
+        case CREATE_AUCTION -> properties.createAuction();
+        case FAILED_AUTHENTICATION -> properties.failedAuthentication();
+      };
+    }
+  }
+}
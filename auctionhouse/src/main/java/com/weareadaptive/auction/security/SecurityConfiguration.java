@@ -1,5 +1,6 @@
 package com.weareadaptive.auction.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -13,6 +14,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
@@ -27,10 +29,16 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
   );
 
   AuthenticationProvider provider;
+  RateLimiter rateLimiter;
+  ObjectMapper objectMapper;
 
-  public SecurityConfiguration(final AuthenticationProvider authenticationProvider) {
+  public SecurityConfiguration(final AuthenticationProvider authenticationProvider,
+                               final RateLimiter rateLimiter,
+                               final ObjectMapper objectMapper) {
     super();
     this.provider = authenticationProvider;
+    this.rateLimiter = rateLimiter;
+    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -51,7 +59,11 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .exceptionHandling()
         .and()
         .authenticationProvider(provider)
+        .addFilterBefore(new FailedAuthenticationLimitFilter(rateLimiter, objectMapper),
+            UsernamePasswordAuthenticationFilter.class)
         .addFilterBefore(authenticationFilter(), AnonymousAuthenticationFilter.class)
+        .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper),
+            AnonymousAuthenticationFilter.class)
         .authorizeRequests()
         .requestMatchers(PROTECTED_URLS)
         .authenticated()
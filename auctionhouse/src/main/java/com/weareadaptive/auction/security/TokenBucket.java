@@ -0,0 +1,45 @@
+package com.weareadaptive.auction.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as the single timestamp at which the bucket will be full again.
+ * Taking a token pushes that time one refill period forward, and is refused when it would end
+ * more than {@code capacity} periods ahead of now. A bucket whose full time has passed is in
+ * the same state as a new one, so it can be dropped without losing anything.
+ */
+public class TokenBucket {
+  private final AtomicLong fullAt;
+
+  public TokenBucket(long now) {
+    fullAt = new AtomicLong(now);
+  }
+
+  /**
+   * Takes a token and returns 0, or returns how many nanoseconds to wait for the next one.
+   */
+  public long tryTake(long now, long refillNanos, long burstNanos) {
+    while (true) {
+      var current = fullAt.get();
+      var next = Math.max(current, now) + refillNanos;
+      var wait = next - now - burstNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Returns how many nanoseconds to wait before a token can be taken, without taking it.
+   */
+  public long waitNanos(long now, long refillNanos, long burstNanos) {
+    return Math.max(0, Math.max(fullAt.get(), now) + refillNanos - now - burstNanos);
+  }
+
+  public boolean isFull(long now) {
+    return fullAt.get() <= now;
+  }
+}
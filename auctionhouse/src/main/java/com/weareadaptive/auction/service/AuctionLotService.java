@@ -1,39 +1,66 @@
 package com.weareadaptive.auction.service;
 
-import static java.lang.Math.min;
 import static java.lang.String.format;
-import static java.math.BigDecimal.valueOf;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
 
+import com.weareadaptive.auction.cache.EntityCache;
 import com.weareadaptive.auction.controller.dto.NewBidResponse;
 import com.weareadaptive.auction.exception.UnauthorizedException;
+import com.weareadaptive.auction.model.AuctionChanges;
+import com.weareadaptive.auction.model.AuctionClearing;
+import com.weareadaptive.auction.model.AuctionListing;
 import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotView;
 import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BidView;
 import com.weareadaptive.auction.model.BusinessException;
+import com.weareadaptive.auction.model.ClosedLotPrice;
 import com.weareadaptive.auction.model.ClosingSummary;
+import com.weareadaptive.auction.model.IndicativePrice;
 import com.weareadaptive.auction.model.ObjectNotFoundException;
+import com.weareadaptive.auction.model.User;
 import com.weareadaptive.auction.repository.AuctionRepository;
+import com.weareadaptive.auction.repository.AuctionRepository.LotLock;
 import com.weareadaptive.auction.repository.BidRepository;
 import com.weareadaptive.auction.repository.UserRepository;
-import java.math.BigDecimal;
 import java.security.Principal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.springframework.stereotype.Service;
 
 @Service
 public record AuctionLotService(AuctionRepository auctionRepository, UserRepository userRepository,
-                                BidRepository bidRepository) {
+                                BidRepository bidRepository, SymbolIndex symbolIndex,
+                                SymbolStatistics symbolStatistics, OrderBooks orderBooks,
+                                OrganisationStatistics organisationStatistics,
+                                ClosingProperties closingProperties, EntityCache entityCache) {
 
   public AuctionLot create(String ownerName, String symbol, double minPrice, int quantity) {
-    var owner = userRepository.findByName(ownerName);
+    return create(ownerName, symbol, minPrice, quantity, AuctionLot.ClearingMode.PAY_AS_BID);
+  }
+
+  public AuctionLot create(String ownerName, String symbol, double minPrice, int quantity,
+                           AuctionLot.ClearingMode clearingMode) {
+    return create(ownerName, symbol, minPrice, quantity, clearingMode, false);
+  }
+
+  public AuctionLot create(String ownerName, String symbol, double minPrice, int quantity,
+                           AuctionLot.ClearingMode clearingMode, boolean rejectNonCompetitive) {
+    var owner = findUser(ownerName);
 
-    var auctionLot = new AuctionLot(owner.getId(), symbol, minPrice, quantity);
-    return auctionRepository.save(auctionLot);
+    var auctionLot = auctionRepository.save(new AuctionLot(
+        owner.getId(), symbol, minPrice, quantity, clearingMode, rejectNonCompetitive));
+    symbolIndex.add(auctionLot);
+    organisationStatistics.onLotOpened(auctionLot);
+    return auctionLot;
   }
 
   public AuctionLot getById(int id) {
-    var auctionLot = auctionRepository.findById(id);
+    var auctionLot = entityCache.findAuctionLot(id, auctionRepository::findById);
 
     if (auctionLot.isEmpty()) {
       throw new ObjectNotFoundException("Auction with id " + id + " doesn't exist");
@@ -42,97 +69,291 @@ public record AuctionLotService(AuctionRepository auctionRepository, UserReposit
     return auctionLot.get();
   }
 
-  public List<AuctionLot> getAll() {
-    return auctionRepository.findAll();
+  /**
+   * Lists every lot with the bids the user may see, in three queries whatever the number of lots.
+   */
+  public List<AuctionListing> getListings(Principal principal) {
+    var userId = findUser(principal.getName()).getId();
+    var bidsOnOwnedLots = bidRepository.findViewsByLotOwner(userId).stream()
+        .collect(groupingBy(BidView::auctionId));
+    var ownBids = bidRepository.findViewsByBidder(userId).stream()
+        .collect(toMap(BidView::auctionId, identity()));
+
+    return auctionRepository.findAllViews().stream()
+        .map(lot -> {
+          var owned = lot.ownerId() == userId;
+          var bids = owned
+              ? bidsOnOwnedLots.getOrDefault(lot.id(), List.of())
+              : Optional.ofNullable(ownBids.get(lot.id())).stream().toList();
+          return new AuctionListing(lot, owned, bids.stream().map(lot::resolve).toList());
+        })
+        .toList();
+  }
+
+  public List<AuctionLotView> search(String symbolPrefix, AuctionLot.Status status) {
+    if (status == null) {
+      return auctionRepository.findViewsBySymbolPrefix(symbolPrefix);
+    }
+    if (status == AuctionLot.Status.OPENED) {
+      var ids = symbolIndex.findByPrefix(symbolPrefix);
+      if (ids.isEmpty()) {
+        return List.of();
+      }
+      return auctionRepository.findViewsById(ids).stream()
+          .filter(auctionLot -> auctionLot.status() == status)
+          .toList();
+    }
+    return auctionRepository.findViewsBySymbolPrefixAndStatus(symbolPrefix, status);
+  }
+
+  /**
+   * Changes from the position a client has read up to. The returned version is the watermark of
+   * the feed, which the client passes back to read the next changes.
+   */
+  public AuctionChanges getChangesSince(long version, Principal principal) {
+    if (version < 0) {
+      throw new BusinessException("sinceVersion cannot be bellow 0");
+    }
+
+    var userId = findUser(principal.getName()).getId();
+    var watermark = auctionRepository.changeWatermark();
+    var auctionLots = auctionRepository.findChangedBetween(version, watermark);
+    var bids = resolve(bidRepository.findVisibleChangedBetween(version, watermark, userId));
+
+    return new AuctionChanges(auctionLots, bids, Math.max(version, watermark));
   }
 
   public NewBidResponse bid(int auctionId, int bidQuantity, double bidPrice, String username) {
-    var auctionLot = getById(auctionId);
+    var bidder = findUser(username);
+    return whileOpen(auctionId, auctionLot -> {
+      validateBid(auctionLot, bidder.getId(), bidQuantity, bidPrice);
+      rejectNonCompetitive(auctionLot, bidder.getId(), bidPrice);
+
+      var bid = bidRepository.getBidByBidderId(auctionId, bidder.getId())
+          .orElseGet(() -> new Bid(auctionLot.getId(), bidder.getId(), bidQuantity, bidPrice));
+      return placeBid(auctionLot, bidder.getUsername(), bid, bidQuantity, bidPrice);
+    });
+  }
 
-    if (auctionLot.getStatus().equals(String.valueOf(AuctionLot.Status.CLOSED))) {
-      throw new BusinessException("Auction with ID " + auctionId + " is closed");
+  public NewBidResponse amendBid(int auctionId, int bidQuantity, double bidPrice,
+                                 String username) {
+    var bidder = findUser(username);
+    return whileOpen(auctionId, auctionLot -> {
+      validateBid(auctionLot, bidder.getId(), bidQuantity, bidPrice);
+      rejectNonCompetitive(auctionLot, bidder.getId(), bidPrice);
+
+      var bid = getActiveBid(auctionId, bidder.getId());
+      return placeBid(auctionLot, bidder.getUsername(), bid, bidQuantity, bidPrice);
+    });
+  }
+
+  public void cancelBid(int auctionId, String username) {
+    var bidder = findUser(username);
+    whileOpen(auctionId, auctionLot -> {
+      var bid = getActiveBid(auctionId, bidder.getId());
+      bid.setState(Bid.State.CANCELLED);
+      bidRepository.save(bid);
+      orderBooks.get(auctionLot).remove(bidder.getId());
+      return bid;
+    });
+  }
+
+  private AuctionLot getOpenLot(int auctionId) {
+    return requireOpen(getById(auctionId));
+  }
+
+  /**
+   * Runs a write to the bids of a lot while it is open, holding the lot against its close. The
+   * status comes from the lock, not the cache, since a close on another node may have changed it.
+   */
+  private <T> T whileOpen(int auctionId, Function<AuctionLot, T> write) {
+    return auctionRepository.inLotTransaction(auctionId, LotLock.SHARED, status -> {
+      if (status == AuctionLot.Status.CLOSED) {
+        throw closed(auctionId);
+      }
+      return write.apply(loadLot(auctionId));
+    });
+  }
+
+  private AuctionLot loadLot(int auctionId) {
+    return auctionRepository.findById(auctionId)
+        .orElseThrow(() -> new ObjectNotFoundException(
+            "Auction with id " + auctionId + " doesn't exist"));
+  }
+
+  private static AuctionLot requireOpen(AuctionLot auctionLot) {
+    if (auctionLot.getStatus() == AuctionLot.Status.CLOSED) {
+      throw closed(auctionLot.getId());
     }
+    return auctionLot;
+  }
 
-    var bidder = userRepository.findByName(username);
+  private static BusinessException closed(int auctionId) {
+    return new BusinessException("Auction with ID " + auctionId + " is closed");
+  }
 
-    if (auctionLot.getOwnerId() == bidder.getId()) {
+  private void validateBid(AuctionLot auctionLot, int bidderId, int bidQuantity,
+                           double bidPrice) {
+    if (auctionLot.getOwnerId() == bidderId) {
       throw new BusinessException("User cannot bid on owned auction");
     }
 
-    if (bidQuantity < 0 || bidQuantity > auctionLot.getQuantity()) {
+    if (bidQuantity <= 0 || bidQuantity > auctionLot.getQuantity()) {
       throw new BusinessException(
           "bidding quantity must be be above 0 and/or not more than auction lot's quantity");
     }
 
+    if (bidPrice <= 0) {
+      throw new BusinessException("price needs to be above 0");
+    }
+
     if (bidPrice < auctionLot.getMinPrice()) {
       throw new BusinessException(format("price needs to be above %s", auctionLot.getMinPrice()));
     }
+  }
+
+  private void rejectNonCompetitive(AuctionLot auctionLot, int bidderId, double bidPrice) {
+    if (!auctionLot.isRejectNonCompetitive()) {
+      return;
+    }
+    var book = orderBooks.get(auctionLot);
+    if (book.isNonCompetitive(bidderId, bidPrice)) {
+      throw new BusinessException(format("price needs to be above the indicative price %s",
+          book.getMarginalPriceExcluding(bidderId, auctionLot.getMinPrice())));
+    }
+  }
 
-    var bid = new Bid(auctionLot.getId(), bidder.getId(), bidQuantity, bidPrice);
-    bidRepository.save(bid);
+  public IndicativePrice getIndicativePrice(int auctionId) {
+    var auctionLot = getOpenLot(auctionId);
+    var book = orderBooks.get(auctionLot);
+    return new IndicativePrice(
+        auctionId,
+        book.getMarginalPrice(auctionLot.getMinPrice()),
+        auctionLot.getQuantity(),
+        book.getWinningQuantity(),
+        book.isFilled(),
+        book.size());
+  }
+
+  private Bid getActiveBid(int auctionId, int bidderId) {
+    return bidRepository.getBidByBidderId(auctionId, bidderId)
+        .filter(bid -> bid.getState() != Bid.State.CANCELLED)
+        .orElseThrow(() -> new ObjectNotFoundException(
+            "No bid from the user on auction with id " + auctionId));
+  }
+
+  private NewBidResponse placeBid(AuctionLot auctionLot, String username, Bid bid,
+                                  int bidQuantity, double bidPrice) {
+    bid.setQuantity(bidQuantity);
+    bid.setPrice(bidPrice);
+    bid.setState(Bid.State.PENDING);
+    var placed = bid.getId() == 0;
+    orderBooks.get(auctionLot).put(bidRepository.save(bid));
+    if (placed) {
+      organisationStatistics.onBidPlaced(bid);
+    }
 
     return new NewBidResponse(
         auctionLot.getId(),
         auctionLot.getSymbol(),
-        bidder.getUsername(),
+        username,
         bidQuantity,
         bidPrice);
   }
 
-  public List<Bid> getAllBids(int auctionId, Principal principal) {
+  public List<BidView> getAllBids(int auctionId, Principal principal) {
     verifyOwnership(auctionId, principal);
+    var auctionLot = AuctionLotView.of(getById(auctionId));
 
-    return bidRepository.getAuctionBids(auctionId);
+    return bidRepository.findViewsByAuctionId(auctionId).stream()
+        .map(auctionLot::resolve)
+        .toList();
   }
 
-  public Optional<Bid> getBidByBidder(int auctionId, Principal principal) {
-    var userId = userRepository.findByName(principal.getName()).getId();
-    return bidRepository.getBidByBidderId(auctionId, userId);
+  public Optional<BidView> getBidByBidder(int auctionId, Principal principal) {
+    var userId = findUser(principal.getName()).getId();
+    return bidRepository.findViewByBidder(auctionId, userId)
+        .map(bid -> AuctionLotView.of(getById(auctionId)).resolve(bid));
+  }
+
+  private List<Bid> resolve(List<Bid> bids) {
+    var closedLots = auctionRepository.findAllById(
+            bids.stream().map(Bid::getAuctionId).distinct().toList()).stream()
+        .filter(lot -> lot.getStatus() == AuctionLot.Status.CLOSED)
+        .collect(toMap(AuctionLot::getId, identity()));
+    return bids.stream()
+        .map(bid -> closedLots.containsKey(bid.getAuctionId())
+            ? closedLots.get(bid.getAuctionId()).resolve(bid)
+            : bid)
+        .toList();
   }
 
   public ClosingSummary close(int auctionId, Principal principal) {
     verifyOwnership(auctionId, principal);
-    var auctionLot = getById(auctionId);
-
-    if (auctionLot.getStatus().equals(String.valueOf(AuctionLot.Status.CLOSED))) {
-      throw new BusinessException("Cannot close because already closed.");
-    }
-
-    saveAuctionBids(auctionLot);
+    var settlement = auctionRepository.inLotTransaction(auctionId, LotLock.EXCLUSIVE, status -> {
+      if (status == AuctionLot.Status.CLOSED) {
+        throw alreadyClosed();
+      }
+      // Closing changes a copy, so the lot itself only changes once the close is claimed
+      return settle(loadLot(auctionId).copy());
+    });
+    var auctionLot = settlement.auctionLot();
+
+    orderBooks.remove(auctionLot);
+    entityCache.auctionLotChanged(auctionLot.getId());
+    symbolIndex.remove(auctionLot);
+    organisationStatistics.onLotClosed(auctionLot, settlement.orderedBids());
+    symbolStatistics.record(new ClosedLotPrice(
+        auctionLot.getId(),
+        auctionLot.getSymbolCode(),
+        auctionLot.getClosingTime(),
+        settlement.result().soldQuantity(),
+        settlement.result().revenue(),
+        settlement.result().clearingPrice()));
     return getSummary(auctionId, principal);
   }
 
-  private void saveAuctionBids(AuctionLot auctionLot) {
-    var orderedBids = bidRepository.getBidsOrderedByPrice(auctionLot.getId());
-    var availableQuantity = auctionLot.getQuantity();
-    var revenue = BigDecimal.ZERO;
-
-    for (Bid bid : orderedBids) {
-      if (availableQuantity > 0) {
-        var bidQuantity = min(availableQuantity, bid.getQuantity());
-        bid.setState(Bid.State.WIN);
-        bid.setWinQuantity(bidQuantity);
-
-        availableQuantity -= bidQuantity;
-        revenue = revenue.add(valueOf(bidQuantity).multiply(valueOf(bid.getPrice())));
-      } else {
-        bid.setState(Bid.State.LOST);
-      }
+  /**
+   * Clears the lot over its stored bids, closes it and stores the outcome of its bids, all in the
+   * transaction of the lot lock: a failure leaves the lot open rather than closed without winners.
+   * The lock keeps bid writes out, so the bids read here are all the lot will ever settle.
+   */
+  private Settlement settle(AuctionLot auctionLot) {
+    // The stored bids, not the order book of this node, which misses bids placed elsewhere
+    var orderedBids = bidRepository.getBidsOrderedByPrice(auctionLot.getId()).stream()
+        .filter(bid -> bid.getState() != Bid.State.CANCELLED)
+        .toList();
+    var result = AuctionClearing.clear(
+        auctionLot.getQuantity(), auctionLot.getClearingMode(), orderedBids);
+
+    var winners = orderedBids.subList(0, result.winners());
+    if (!winners.isEmpty()) {
+      var marginal = winners.get(winners.size() - 1);
+      auctionLot.setCutoff(marginal.getId(), marginal.getWinQuantity());
     }
-
-    bidRepository.saveAll(orderedBids);
-    auctionLot.setTotalRevenue(revenue.doubleValue());
-    auctionLot.setTotalSoldQuantity(auctionLot.getQuantity() - availableQuantity);
+    auctionLot.setClosingVersion(
+        orderedBids.stream().mapToLong(Bid::getVersion).max().orElse(0));
+    auctionLot.setTotalRevenue(result.revenue());
+    auctionLot.setTotalSoldQuantity(result.soldQuantity());
+    auctionLot.setClearingPrice(result.clearingPrice());
     auctionLot.setClosingTime(Instant.now());
     auctionLot.setStatus(AuctionLot.Status.CLOSED);
-    auctionRepository.save(auctionLot);
+    if (!auctionRepository.closeIfOpen(auctionLot)) {
+      throw alreadyClosed();
+    }
+    bidRepository.saveAll(closingProperties.deriveLostBids() ? winners : orderedBids);
+    return new Settlement(auctionLot, orderedBids, result);
+  }
+
+  private static BusinessException alreadyClosed() {
+    return new BusinessException("Cannot close because already closed.");
   }
 
   public ClosingSummary getSummary(int auctionId, Principal principal) {
     verifyOwnership(auctionId, principal);
     var auctionLot = getById(auctionId);
 
-    if (auctionLot.getStatus().equals(String.valueOf(AuctionLot.Status.OPENED))) {
+    if (auctionLot.getStatus() == AuctionLot.Status.OPENED) {
       throw new BusinessException("AuctionLot must be closed to have a closing summary");
     }
 
@@ -140,11 +361,13 @@ public record AuctionLotService(AuctionRepository auctionRepository, UserReposit
         bidRepository.getOrderedWinningBids(auctionId),
         auctionLot.getTotalSoldQuantity(),
         auctionLot.getTotalRevenue(),
-        auctionLot.getClosingTime());
+        auctionLot.getClosingTime(),
+        auctionLot.getClearingMode(),
+        auctionLot.getClearingPrice());
   }
 
   private void verifyOwnership(int auctionId, Principal principal) {
-    var userId = userRepository.findByName(principal.getName()).getId();
+    var userId = findUser(principal.getName()).getId();
     var auctionLot = auctionRepository.validateAuctionOwner(auctionId, userId);
 
     if (auctionLot.isEmpty()) {
@@ -153,6 +376,14 @@ public record AuctionLotService(AuctionRepository auctionRepository, UserReposit
   }
 
   public boolean isAuctionOwner(AuctionLot auctionLot, String name) {
-    return auctionLot.getOwnerId() == userRepository.findByName(name).getId();
+    return auctionLot.getOwnerId() == findUser(name).getId();
+  }
+
+  private User findUser(String username) {
+    return entityCache.findUser(username, userRepository::findByName);
+  }
+
+  private record Settlement(AuctionLot auctionLot, List<Bid> orderedBids,
+                            AuctionClearing.Result result) {
   }
 }
@@ -0,0 +1,14 @@
+package com.weareadaptive.auction.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * With {@code deriveLostBids} a close only writes the winning bids. Bids left pending on a
+ * closed lot are resolved against the cutoff stored on the lot when they are read.
+ */
+@ConstructorBinding
+@ConfigurationProperties("auction.close")
+public record ClosingProperties(@DefaultValue("false") boolean deriveLostBids) {
+}
@@ -0,0 +1,51 @@
+package com.weareadaptive.auction.service;
+
+import com.weareadaptive.auction.datasource.ReadWriteRouting;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.OrderBook;
+import com.weareadaptive.auction.repository.BidRepository;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Order books of the open lots, loaded from the bid repository the first time a lot is touched
+ * and dropped when it closes. A book loaded while the request is routed to the replica may miss
+ * recent bids, so it serves that request only and is not kept.
+ */
+@Component
+public class OrderBooks {
+  private final Map<Integer, OrderBook> books = new ConcurrentHashMap<>();
+  private final BidRepository bidRepository;
+  private final ReadWriteRouting routing;
+
+  public OrderBooks(BidRepository bidRepository, ObjectProvider<ReadWriteRouting> routing) {
+    this.bidRepository = bidRepository;
+    this.routing = routing.getIfAvailable();
+  }
+
+  public OrderBook get(AuctionLot auctionLot) {
+    if (routing != null && routing.isReplica()) {
+      var book = books.get(auctionLot.getId());
+      return book != null ? book : load(auctionLot);
+    }
+    return books.computeIfAbsent(auctionLot.getId(), id -> load(auctionLot));
+  }
+
+  public OrderBook remove(AuctionLot auctionLot) {
+    var book = books.remove(auctionLot.getId());
+    return book == null ? load(auctionLot) : book;
+  }
+
+  private OrderBook load(AuctionLot auctionLot) {
+    var book = new OrderBook(auctionLot.getQuantity());
+    for (Bid bid : bidRepository.getAuctionBids(auctionLot.getId())) {
+      if (bid.getState() != Bid.State.CANCELLED) {
+        book.put(bid);
+      }
+    }
+    return book;
+  }
+}
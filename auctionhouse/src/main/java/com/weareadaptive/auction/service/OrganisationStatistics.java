@@ -0,0 +1,165 @@
+package com.weareadaptive.auction.service;
+
+import static java.util.Comparator.comparing;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.OrganisationDetails;
+import com.weareadaptive.auction.model.User;
+import com.weareadaptive.auction.repository.AuctionRepository;
+import com.weareadaptive.auction.repository.BidRepository;
+import com.weareadaptive.auction.repository.UserRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per organisation counters maintained as users, lots and bids change, so that reading them is
+ * a map lookup. Activity is attributed to the current organisation of the user, the only
+ * attribution a rebuild from the database can reproduce: each user's activity is also counted
+ * on its own, and moves with the user when they change organisation.
+ */
+@Component
+public class OrganisationStatistics {
+  private volatile Map<String, Totals> organisations = new ConcurrentHashMap<>();
+  private volatile Map<Integer, String> organisationByUser = new ConcurrentHashMap<>();
+  private volatile Map<Integer, Totals> activityByUser = new ConcurrentHashMap<>();
+  private volatile Map<Integer, Integer> ownerByOpenLot = new ConcurrentHashMap<>();
+  private final UserRepository userRepository;
+  private final AuctionRepository auctionRepository;
+  private final BidRepository bidRepository;
+
+  public OrganisationStatistics(UserRepository userRepository,
+                                AuctionRepository auctionRepository,
+                                BidRepository bidRepository) {
+    this.userRepository = userRepository;
+    this.auctionRepository = auctionRepository;
+    this.bidRepository = bidRepository;
+  }
+
+  /**
+   * Counts everything again from the database into new maps, which are then swapped in, so that
+   * readers never see partial totals.
+   */
+  @PostConstruct
+  public void rebuild() {
+    var rebuilt = new OrganisationStatistics(userRepository, auctionRepository, bidRepository);
+    rebuilt.load();
+    organisationByUser = rebuilt.organisationByUser;
+    activityByUser = rebuilt.activityByUser;
+    ownerByOpenLot = rebuilt.ownerByOpenLot;
+    organisations = rebuilt.organisations;
+  }
+
+  private void load() {
+    userRepository.forEachUser(null, null, this::onUserCreated);
+    auctionRepository.findByStatus(AuctionLot.Status.OPENED)
+        .forEach(this::onLotOpened);
+    auctionRepository.findRevenueByOwner().forEach(owner ->
+        credit(owner.ownerId(), totals -> totals.revenue.add(owner.revenue())));
+    bidRepository.findActivityByBidder().forEach(bidder -> credit(bidder.userId(), totals -> {
+      totals.bidsPlaced.add(bidder.bids());
+      totals.quantityWon.add(bidder.quantityWon());
+    }));
+  }
+
+  public void onUserCreated(User user) {
+    organisationByUser.put(user.getId(), user.getOrganisation());
+    totals(user.getOrganisation()).users.increment();
+  }
+
+  public void onUserUpdated(String previousOrganisation, User user) {
+    if (previousOrganisation.equals(user.getOrganisation())) {
+      return;
+    }
+    organisationByUser.put(user.getId(), user.getOrganisation());
+    var from = totals(previousOrganisation);
+    var to = totals(user.getOrganisation());
+    from.users.decrement();
+    to.users.increment();
+    var activity = activityByUser.get(user.getId());
+    if (activity != null) {
+      from.add(activity, -1);
+      to.add(activity, 1);
+    }
+  }
+
+  public void onLotOpened(AuctionLot auctionLot) {
+    ownerByOpenLot.put(auctionLot.getId(), auctionLot.getOwnerId());
+    credit(auctionLot.getOwnerId(), totals -> totals.openLots.increment());
+  }
+
+  public void onBidPlaced(Bid bid) {
+    credit(bid.getUserId(), totals -> totals.bidsPlaced.increment());
+  }
+
+  public void onLotClosed(AuctionLot auctionLot, List<Bid> bids) {
+    var wasOpen = ownerByOpenLot.remove(auctionLot.getId()) != null;
+    credit(auctionLot.getOwnerId(), totals -> {
+      if (wasOpen) {
+        totals.openLots.decrement();
+      }
+      totals.revenue.add(auctionLot.getTotalRevenue());
+    });
+    for (Bid bid : bids) {
+      if (bid.getWinQuantity() > 0) {
+        credit(bid.getUserId(), totals -> totals.quantityWon.add(bid.getWinQuantity()));
+      }
+    }
+  }
+
+  public Optional<OrganisationDetails> get(String organisation) {
+    return Optional.ofNullable(organisations.get(organisation))
+        .map(totals -> totals.snapshot(organisation));
+  }
+
+  public List<OrganisationDetails> getAll() {
+    return organisations.entrySet().stream()
+        .map(entry -> entry.getValue().snapshot(entry.getKey()))
+        .sorted(comparing(OrganisationDetails::organisationName))
+        .toList();
+  }
+
+  private void credit(int userId, Consumer<Totals> change) {
+    change.accept(activityByUser.computeIfAbsent(userId, id -> new Totals()));
+    var organisation = organisationByUser.get(userId);
+    if (organisation != null) {
+      change.accept(totals(organisation));
+    }
+  }
+
+  private Totals totals(String organisation) {
+    return organisations.computeIfAbsent(organisation, name -> new Totals());
+  }
+
+  private static final class Totals {
+    private final LongAdder users = new LongAdder();
+    private final LongAdder openLots = new LongAdder();
+    private final LongAdder bidsPlaced = new LongAdder();
+    private final LongAdder quantityWon = new LongAdder();
+    private final DoubleAdder revenue = new DoubleAdder();
+
+    private void add(Totals activity, int sign) {
+      openLots.add(sign * activity.openLots.sum());
+      bidsPlaced.add(sign * activity.bidsPlaced.sum());
+      quantityWon.add(sign * activity.quantityWon.sum());
+      revenue.add(sign * activity.revenue.sum());
+    }
+
+    private OrganisationDetails snapshot(String organisation) {
+      return new OrganisationDetails(
+          organisation,
+          users.sum(),
+          openLots.sum(),
+          bidsPlaced.sum(),
+          quantityWon.sum(),
+          revenue.sum());
+    }
+  }
+}
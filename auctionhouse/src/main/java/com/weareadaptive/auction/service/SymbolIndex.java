@@ -0,0 +1,50 @@
+package com.weareadaptive.auction.service;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.IntIndex;
+import com.weareadaptive.auction.model.SymbolDictionary;
+import com.weareadaptive.auction.repository.AuctionRepository;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index of open lots by symbol code. A prefix lookup is a range scan over the sorted symbol
+ * dictionary followed by one postings list per matching symbol. Loading builds a new index
+ * and swaps it in, so lookups never see a partly loaded one.
+ */
+@Component
+public class SymbolIndex {
+  private volatile IntIndex openLots = new IntIndex();
+  private final AuctionRepository auctionRepository;
+
+  public SymbolIndex(AuctionRepository auctionRepository) {
+    this.auctionRepository = auctionRepository;
+  }
+
+  @PostConstruct
+  public void load() {
+    var loaded = new IntIndex();
+    auctionRepository.findByStatus(AuctionLot.Status.OPENED)
+        .forEach(auctionLot -> loaded.add(auctionLot.getSymbolCode(), auctionLot.getId()));
+    synchronized (this) {
+      openLots = loaded;
+    }
+  }
+
+  public synchronized void add(AuctionLot auctionLot) {
+    openLots.add(auctionLot.getSymbolCode(), auctionLot.getId());
+  }
+
+  public synchronized void remove(AuctionLot auctionLot) {
+    openLots.remove(auctionLot.getSymbolCode(), auctionLot.getId());
+  }
+
+  public List<Integer> findByPrefix(String prefix) {
+    return SymbolDictionary.findByPrefix(AuctionLot.normalizeSymbol(prefix))
+        .flatMap(openLots::stream)
+        .sorted()
+        .boxed()
+        .toList();
+  }
+}
@@ -0,0 +1,161 @@
+package com.weareadaptive.auction.service;
+
+import com.weareadaptive.auction.model.ClosedLotPrice;
+import com.weareadaptive.auction.model.PriceBucket;
+import com.weareadaptive.auction.model.SymbolDictionary;
+import com.weareadaptive.auction.repository.BidRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per symbol OHLC, VWAP and volume over a rolling window of fixed size time buckets. The
+ * price of a close is its clearing price, the lowest accepted bid.
+ *
+ * <p>A rebuild reads the closes from the database into new series, which are then swapped in.
+ * Closes recorded while it reads are kept aside and replayed into the new series, unless the
+ * read already saw their lot.
+ */
+@Component
+public class SymbolStatistics {
+  private volatile Map<Integer, Series> series = new ConcurrentHashMap<>();
+  private final Object rebuildLock = new Object();
+  private List<ClosedLotPrice> recordedDuringRebuild;
+  private final BidRepository bidRepository;
+  private final long bucketMillis;
+  private final int buckets;
+
+  public SymbolStatistics(BidRepository bidRepository, SymbolStatsProperties properties) {
+    this.bidRepository = bidRepository;
+    this.bucketMillis = properties.bucket().toMillis();
+    this.buckets = properties.buckets();
+  }
+
+  @PostConstruct
+  public void rebuild() {
+    synchronized (rebuildLock) {
+      synchronized (this) {
+        recordedDuringRebuild = new ArrayList<>();
+      }
+      try {
+        var rebuilt = new ConcurrentHashMap<Integer, Series>();
+        var since = Instant.ofEpochMilli((currentBucket() - buckets + 1) * bucketMillis);
+        var read = new HashSet<Integer>();
+        for (ClosedLotPrice price : bidRepository.findClosedLotPrices(since)) {
+          read.add(price.auctionId());
+          record(rebuilt, price);
+        }
+        synchronized (this) {
+          for (ClosedLotPrice price : recordedDuringRebuild) {
+            if (!read.contains(price.auctionId())) {
+              record(rebuilt, price);
+            }
+          }
+          series = rebuilt;
+        }
+      } finally {
+        synchronized (this) {
+          recordedDuringRebuild = null;
+        }
+      }
+    }
+  }
+
+  public synchronized void record(ClosedLotPrice price) {
+    record(series, price);
+    if (recordedDuringRebuild != null) {
+      recordedDuringRebuild.add(price);
+    }
+  }
+
+  private void record(Map<Integer, Series> target, ClosedLotPrice price) {
+    if (price.soldQuantity() == 0) {
+      return;
+    }
+    target.computeIfAbsent(price.symbol(), symbol -> new Series(buckets))
+        .record(price.closingTime().toEpochMilli() / bucketMillis, price);
+  }
+
+  public List<PriceBucket> getStats(String symbol) {
+    var symbolSeries = series.get(SymbolDictionary.find(symbol));
+    if (symbolSeries == null) {
+      return List.of();
+    }
+    return symbolSeries.snapshot(currentBucket());
+  }
+
+  private long currentBucket() {
+    return System.currentTimeMillis() / bucketMillis;
+  }
+
+  private final class Series {
+    private final long[] bucket;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] notional;
+    private final long[] volume;
+    private final int[] closedLots;
+
+    private Series(int size) {
+      bucket = new long[size];
+      open = new double[size];
+      high = new double[size];
+      low = new double[size];
+      close = new double[size];
+      notional = new double[size];
+      volume = new long[size];
+      closedLots = new int[size];
+      Arrays.fill(bucket, -1);
+    }
+
+    private synchronized void record(long bucketId, ClosedLotPrice price) {
+      var slot = (int) (bucketId % bucket.length);
+      if (bucket[slot] > bucketId) {
+        return;
+      }
+      if (bucket[slot] != bucketId) {
+        bucket[slot] = bucketId;
+        open[slot] = price.clearingPrice();
+        high[slot] = price.clearingPrice();
+        low[slot] = price.clearingPrice();
+        notional[slot] = 0;
+        volume[slot] = 0;
+        closedLots[slot] = 0;
+      }
+      high[slot] = Math.max(high[slot], price.clearingPrice());
+      low[slot] = Math.min(low[slot], price.clearingPrice());
+      close[slot] = price.clearingPrice();
+      notional[slot] += price.revenue();
+      volume[slot] += price.soldQuantity();
+      closedLots[slot]++;
+    }
+
+    private synchronized List<PriceBucket> snapshot(long currentBucket) {
+      var result = new ArrayList<PriceBucket>();
+      for (long bucketId = currentBucket - bucket.length + 1; bucketId <= currentBucket;
+           bucketId++) {
+        var slot = (int) (bucketId % bucket.length);
+        if (bucketId >= 0 && bucket[slot] == bucketId) {
+          result.add(new PriceBucket(
+              Instant.ofEpochMilli(bucketId * bucketMillis),
+              open[slot],
+              high[slot],
+              low[slot],
+              close[slot],
+              notional[slot] / volume[slot],
+              volume[slot],
+              closedLots[slot]));
+        }
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.weareadaptive.auction.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConstructorBinding
+@ConfigurationProperties("auction.stats")
+public record SymbolStatsProperties(@DefaultValue("1h") Duration bucket,
+                                    @DefaultValue("24") int buckets) {
+}
@@ -1,18 +1,34 @@
 package com.weareadaptive.auction.service;
 
+import static java.util.stream.Collectors.joining;
+
+import com.weareadaptive.auction.cache.EntityCache;
+import com.weareadaptive.auction.controller.dto.CreateUserRequest;
 import com.weareadaptive.auction.model.BusinessException;
 import com.weareadaptive.auction.model.ObjectNotFoundException;
 import com.weareadaptive.auction.model.User;
+import com.weareadaptive.auction.model.UserImportResult;
 import com.weareadaptive.auction.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 
 @Service
-public record UserService(UserRepository userRepository) {
+public record UserService(UserRepository userRepository,
+                          OrganisationStatistics organisationStatistics,
+                          EntityCache entityCache,
+                          Validator validator) {
+  public static final int MAX_PAGE_SIZE = 1_000;
+  public static final int MAX_BULK_SIZE = 10_000;
 
   public User create(String username, String password, String firstName, String lastName,
                      String organisation) {
@@ -23,7 +39,9 @@ public record UserService(UserRepository userRepository) {
     user.setLastName(lastName);
     user.setOrganisation(organisation);
     try {
-      return userRepository.save(user);
+      var created = userRepository.save(user);
+      organisationStatistics.onUserCreated(created);
+      return created;
     } catch (DataIntegrityViolationException e) {
       var cause = e.getCause();
 
@@ -36,6 +54,61 @@ public record UserService(UserRepository userRepository) {
     }
   }
 
+  public List<UserImportResult> createAll(List<CreateUserRequest> requests) {
+    if (requests.size() > MAX_BULK_SIZE) {
+      throw new BusinessException(
+          String.format("cannot create more than %d users at once", MAX_BULK_SIZE));
+    }
+
+    var results = new UserImportResult[requests.size()];
+    var rows = new HashMap<String, Integer>();
+    var candidates = new ArrayList<User>(requests.size());
+    for (int row = 0; row < requests.size(); row++) {
+      var request = requests.get(row);
+      if (request == null) {
+        results[row] = UserImportResult.invalid(row, null, "row cannot be empty");
+        continue;
+      }
+      // The same constraints as a single create, which the request body binding checks there
+      var violations = validator.validate(request);
+      if (!violations.isEmpty()) {
+        results[row] = UserImportResult.invalid(row, request.username(), describe(violations));
+        continue;
+      }
+      try {
+        var user = new User(0, request.username(), request.password(), request.firstName(),
+            request.lastName(), request.organisation());
+        if (rows.putIfAbsent(user.getUsername(), row) != null) {
+          results[row] = UserImportResult.duplicate(row, user.getUsername());
+        } else {
+          candidates.add(user);
+        }
+      } catch (BusinessException e) {
+        results[row] = UserImportResult.invalid(row, request.username(), e.getMessage());
+      }
+    }
+
+    for (User user : userRepository.insertAllIgnoringDuplicates(candidates)) {
+      organisationStatistics.onUserCreated(user);
+      var row = rows.get(user.getUsername());
+      results[row] = UserImportResult.created(row, user);
+    }
+    for (User user : candidates) {
+      var row = rows.get(user.getUsername());
+      if (results[row] == null) {
+        results[row] = UserImportResult.duplicate(row, user.getUsername());
+      }
+    }
+    return List.of(results);
+  }
+
+  private static String describe(Set<ConstraintViolation<CreateUserRequest>> violations) {
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .sorted()
+        .collect(joining(", "));
+  }
+
   public User getById(int id) {
     return userRepository.findById(id)
         .orElseThrow(() -> new ObjectNotFoundException("User with id " + id + " doesn't exist"));
@@ -46,8 +119,12 @@ public record UserService(UserRepository userRepository) {
         .orElseThrow(() -> new ObjectNotFoundException("User with id " + id + " doesn't exist"));
     user.setFirstName(firstName);
     user.setLastName(lastName);
+    var previousOrganisation = user.getOrganisation();
     user.setOrganisation(organisation);
-    return userRepository.save(user);
+    var updated = userRepository.save(user);
+    entityCache.userChanged(id);
+    organisationStatistics.onUserUpdated(previousOrganisation, updated);
+    return updated;
   }
 
   public void blockById(int id) {
@@ -56,6 +133,7 @@ public record UserService(UserRepository userRepository) {
     if (count == 0) {
       throw new ObjectNotFoundException(String.format("User with id %d doesn't exist", id));
     }
+    entityCache.userChanged(id);
   }
 
   public void unblockById(int id) {
@@ -64,12 +142,28 @@ public record UserService(UserRepository userRepository) {
     if (count == 0) {
       throw new ObjectNotFoundException(String.format("User with id %d doesn't exist", id));
     }
+    entityCache.userChanged(id);
+  }
+
+  public List<User> getPage(int afterId, int limit, String organisation, Boolean blocked) {
+    if (afterId < 0) {
+      throw new BusinessException("afterId cannot be bellow 0");
+    }
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new BusinessException(
+          String.format("limit must be between 1 and %d", MAX_PAGE_SIZE));
+    }
+    return userRepository.findPage(afterId, limit, organisation, blocked);
   }
 
-  public List<User> getAll() {
-    return userRepository.findAll();
+  public void forEachUser(String organisation, Boolean blocked, Consumer<User> consumer) {
+    userRepository.forEachUser(organisation, blocked, consumer);
   }
 
+  /**
+   * Checked against the database rather than the cache, so that a changed password or a blocked
+   * user takes effect on every node at once.
+   */
   public Optional<User> validateUsernamePassword(String username, String password) {
     return userRepository.validateUsernamePassword(username, password);
   }
@@ -0,0 +1,7 @@
+CREATE TABLE cluster_job_run
+(
+    job_name        VARCHAR(100) NOT NULL,
+    partition_index INTEGER      NOT NULL,
+    completed_at    TIMESTAMP    NOT NULL,
+    PRIMARY KEY (job_name, partition_index)
+);
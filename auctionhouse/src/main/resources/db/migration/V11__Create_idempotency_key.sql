@@ -0,0 +1,13 @@
+CREATE TABLE idempotency_key
+(
+    username        VARCHAR(50)  NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_path    VARCHAR(200) NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(100),
+    body            BYTEA,
+    created_at      TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (username, idempotency_key)
+);
+
+CREATE INDEX idempotency_key_created_at_idx ON idempotency_key (created_at);
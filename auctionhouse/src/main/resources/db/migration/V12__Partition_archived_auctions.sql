@@ -0,0 +1,82 @@
+-- Lots and bids are list partitioned on an archived flag. Closed lots past the archive threshold
+-- are moved to the cold partitions, so the hot partitions and their indexes only hold the open
+-- book and recently closed lots, while queries on the parent tables still see everything.
+
+ALTER SEQUENCE auction_lot_id_seq OWNED BY NONE;
+ALTER SEQUENCE auction_bid_id_seq OWNED BY NONE;
+
+ALTER TABLE auction_lot
+    ALTER COLUMN owner_id DROP DEFAULT;
+ALTER TABLE auction_bid
+    ALTER COLUMN auction_id DROP DEFAULT,
+    ALTER COLUMN user_id DROP DEFAULT;
+
+ALTER TABLE auction_lot RENAME TO auction_lot_unpartitioned;
+ALTER TABLE auction_bid RENAME TO auction_bid_unpartitioned;
+
+ALTER TABLE auction_lot_unpartitioned DROP CONSTRAINT auction_lot_pkey;
+ALTER TABLE auction_bid_unpartitioned
+    DROP CONSTRAINT auction_bid_pkey,
+    DROP CONSTRAINT auction_bid_auction_user_key;
+DROP INDEX auction_lot_version_idx, auction_lot_symbol_idx, auction_lot_open_symbol_idx,
+    auction_bid_version_idx, auction_bid_win_idx;
+
+CREATE TABLE auction_lot
+(
+    LIKE auction_lot_unpartitioned INCLUDING DEFAULTS,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, archived)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE auction_lot_hot PARTITION OF auction_lot FOR VALUES IN (FALSE);
+CREATE TABLE auction_lot_archive PARTITION OF auction_lot FOR VALUES IN (TRUE);
+
+CREATE TABLE auction_bid
+(
+    LIKE auction_bid_unpartitioned INCLUDING DEFAULTS,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, archived),
+    UNIQUE (auction_id, user_id, archived)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE auction_bid_hot PARTITION OF auction_bid FOR VALUES IN (FALSE);
+CREATE TABLE auction_bid_archive PARTITION OF auction_bid FOR VALUES IN (TRUE);
+
+INSERT INTO auction_lot SELECT * FROM auction_lot_unpartitioned;
+INSERT INTO auction_bid SELECT * FROM auction_bid_unpartitioned;
+
+DROP TABLE auction_lot_unpartitioned, auction_bid_unpartitioned;
+
+ALTER SEQUENCE auction_lot_id_seq OWNED BY auction_lot.id;
+ALTER SEQUENCE auction_bid_id_seq OWNED BY auction_bid.id;
+
+CREATE INDEX auction_lot_version_idx ON auction_lot (version);
+CREATE INDEX auction_bid_version_idx ON auction_bid (version);
+CREATE INDEX auction_lot_symbol_idx ON auction_lot (symbol text_pattern_ops);
+CREATE INDEX auction_lot_open_symbol_idx ON auction_lot (symbol text_pattern_ops) WHERE status = 0;
+CREATE INDEX auction_bid_win_idx ON auction_bid (auction_id, price DESC) WHERE state = 2;
+CREATE INDEX auction_lot_hot_closed_idx ON auction_lot_hot (closing_time) WHERE status = 1;
+
+-- Moving a row to the archive is not a change of the lot or bid, so it keeps its version.
+CREATE OR REPLACE FUNCTION bump_auction_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.archived THEN
+        RETURN NEW;
+    END IF;
+    NEW.version := nextval('auction_version_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER auction_lot_version
+    BEFORE INSERT OR UPDATE
+    ON auction_lot
+    FOR EACH ROW
+EXECUTE FUNCTION bump_auction_version();
+
+CREATE TRIGGER auction_bid_version
+    BEFORE INSERT OR UPDATE
+    ON auction_bid
+    FOR EACH ROW
+EXECUTE FUNCTION bump_auction_version();
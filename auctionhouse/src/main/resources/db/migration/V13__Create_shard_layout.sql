@@ -0,0 +1,9 @@
+-- Which shard this database is and how many shards there are. Ids encode the shard modulo the
+-- count, so the layout cannot change once ids have been handed out.
+CREATE TABLE shard_layout
+(
+    shard       INT NOT NULL,
+    shard_count INT NOT NULL
+);
+
+CREATE UNIQUE INDEX shard_layout_single_row ON shard_layout ((true));
@@ -0,0 +1,23 @@
+-- Versions are drawn when a row is written, not when its transaction commits, so a change can
+-- become visible after a later version. The change feed is instead read up to the oldest
+-- transaction still running, which needs the transaction that wrote each row.
+ALTER TABLE auction_lot
+    ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE auction_bid
+    ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION bump_auction_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.archived THEN
+        RETURN NEW;
+    END IF;
+    NEW.version := nextval('auction_version_seq');
+    NEW.change_xid := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE INDEX auction_lot_change_xid_idx ON auction_lot (change_xid);
+CREATE INDEX auction_bid_change_xid_idx ON auction_bid (change_xid);
@@ -0,0 +1,4 @@
+-- Latest bid version settled by the close of the lot, so that a bid written after the close
+-- resolves as lost. Lots closed before this column existed keep 0, which disables the check.
+ALTER TABLE auction_lot
+    ADD COLUMN closing_version BIGINT NOT NULL DEFAULT 0;
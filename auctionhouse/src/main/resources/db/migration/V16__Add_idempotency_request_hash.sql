@@ -0,0 +1,4 @@
+-- Keys claimed before this column existed keep a NULL hash and are replayed without comparing
+-- bodies until they expire.
+ALTER TABLE idempotency_key
+    ADD COLUMN request_hash VARCHAR(64);
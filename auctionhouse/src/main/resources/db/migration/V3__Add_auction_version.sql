@@ -0,0 +1,30 @@
+CREATE SEQUENCE auction_version_seq;
+
+ALTER TABLE auction_lot
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE auction_bid
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE FUNCTION bump_auction_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    NEW.version := nextval('auction_version_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER auction_lot_version
+    BEFORE INSERT OR UPDATE
+    ON auction_lot
+    FOR EACH ROW
+EXECUTE FUNCTION bump_auction_version();
+
+CREATE TRIGGER auction_bid_version
+    BEFORE INSERT OR UPDATE
+    ON auction_bid
+    FOR EACH ROW
+EXECUTE FUNCTION bump_auction_version();
+
+CREATE INDEX auction_lot_version_idx ON auction_lot (version);
+CREATE INDEX auction_bid_version_idx ON auction_bid (version);
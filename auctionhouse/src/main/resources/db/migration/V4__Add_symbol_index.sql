@@ -0,0 +1 @@
+CREATE INDEX auction_lot_symbol_idx ON auction_lot (symbol text_pattern_ops);
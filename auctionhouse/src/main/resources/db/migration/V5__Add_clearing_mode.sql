@@ -0,0 +1,10 @@
+ALTER TABLE auction_lot
+    ADD COLUMN clearing_mode  VARCHAR(15) NOT NULL DEFAULT 'PAY_AS_BID',
+    ADD COLUMN clearing_price NUMERIC     NOT NULL DEFAULT 0;
+
+UPDATE auction_lot a
+SET clearing_price = coalesce((SELECT min(b.price)
+                               FROM auction_bid b
+                               WHERE b.auction_id = a.id
+                                 AND b.state = 'WIN'), 0)
+WHERE a.status = 'CLOSED';
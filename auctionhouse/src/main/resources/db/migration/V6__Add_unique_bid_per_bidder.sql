@@ -0,0 +1,28 @@
+-- A bidder now has a single bid per lot, amended in place. Older duplicates are kept in
+-- auction_bid_superseded rather than dropped, and their count is reported in the migration log.
+CREATE TABLE auction_bid_superseded AS
+SELECT b.*
+FROM auction_bid b
+WHERE b.id < (SELECT max(d.id)
+              FROM auction_bid d
+              WHERE d.auction_id = b.auction_id
+                AND d.user_id = b.user_id);
+
+DO
+$$
+DECLARE
+    superseded BIGINT;
+BEGIN
+    SELECT count(*) INTO superseded FROM auction_bid_superseded;
+    IF superseded > 0 THEN
+        RAISE WARNING 'Moved % superseded bids to auction_bid_superseded', superseded;
+    END IF;
+END
+$$;
+
+DELETE
+FROM auction_bid
+WHERE id IN (SELECT id FROM auction_bid_superseded);
+
+ALTER TABLE auction_bid
+    ADD CONSTRAINT auction_bid_auction_user_key UNIQUE (auction_id, user_id);
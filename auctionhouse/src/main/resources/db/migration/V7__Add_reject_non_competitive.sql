@@ -0,0 +1,2 @@
+ALTER TABLE auction_lot
+    ADD COLUMN reject_non_competitive BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,3 @@
+ALTER TABLE auction_lot
+    ADD COLUMN cutoff_bid_id   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN cutoff_quantity INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+ALTER TABLE auction_lot
+    ALTER COLUMN status DROP DEFAULT,
+    ALTER COLUMN clearing_mode DROP DEFAULT;
+
+ALTER TABLE auction_lot
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+                                                WHEN 'OPENED' THEN 0
+                                                WHEN 'CLOSED' THEN 1 END,
+    ALTER COLUMN clearing_mode TYPE SMALLINT USING CASE clearing_mode
+                                                       WHEN 'PAY_AS_BID' THEN 0
+                                                       WHEN 'UNIFORM_PRICE' THEN 1 END;
+
+ALTER TABLE auction_lot
+    ALTER COLUMN status SET DEFAULT 0,
+    ALTER COLUMN clearing_mode SET DEFAULT 0;
+
+ALTER TABLE auction_bid
+    ALTER COLUMN state TYPE SMALLINT USING CASE state
+                                              WHEN 'PENDING' THEN 0
+                                              WHEN 'LOST' THEN 1
+                                              WHEN 'WIN' THEN 2
+                                              WHEN 'CANCELLED' THEN 3 END;
+
+CREATE INDEX auction_lot_open_symbol_idx ON auction_lot (symbol text_pattern_ops) WHERE status = 0;
+
+CREATE INDEX auction_bid_win_idx ON auction_bid (auction_id, price DESC) WHERE state = 2;
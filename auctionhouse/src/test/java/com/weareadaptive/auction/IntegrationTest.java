@@ -15,6 +15,14 @@ public abstract class IntegrationTest {
   @Autowired
   protected TestData testData;
 
+  /**
+   * The same database opened read only, standing in for a replica: any write routed to it fails.
+   */
+  protected static String replicaUrl(String jdbcUrl) {
+    return jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?")
+        + "options=-c%20default_transaction_read_only=on";
+  }
+
   @BeforeEach
   public void initialiseRestAssuredMockMvcStandalone() {
     uri = "http://localhost:" + port;
@@ -0,0 +1,117 @@
+package com.weareadaptive.auction;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the application data source to record the statements executed while serving each HTTP
+ * request, so that tests can bound how many round trips an endpoint makes. Only statements run
+ * on the request thread are recorded; background jobs and shard fan-out threads are not.
+ */
+@Component
+public class StatementCounter implements BeanPostProcessor {
+  private static final String DATA_SOURCE = "dataSource";
+
+  private final ThreadLocal<List<String>> current = new ThreadLocal<>();
+  private final Map<String, List<String>> lastByRequest = new ConcurrentHashMap<>();
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource) {
+      return proxy(DataSource.class, dataSource, null);
+    }
+    return bean;
+  }
+
+  public void reset() {
+    lastByRequest.clear();
+  }
+
+  /**
+   * Statements executed by the last request matching, for example, {@code "GET /auctions"}.
+   */
+  public List<String> statementsOf(String request) {
+    var statements = lastByRequest.get(request);
+    if (statements == null) {
+      throw new AssertionError("No request recorded for " + request);
+    }
+    return statements;
+  }
+
+  public int countOf(String request) {
+    return statementsOf(request).size();
+  }
+
+  public void assertAtMost(String request, int max) {
+    var statements = statementsOf(request);
+    if (statements.size() > max) {
+      throw new AssertionError(String.format("%s issued %d statements, expected at most %d:%n%s",
+          request, statements.size(), max, String.join(System.lineSeparator(), statements)));
+    }
+  }
+
+  void begin() {
+    current.set(new ArrayList<>());
+  }
+
+  void end(String request) {
+    var statements = current.get();
+    current.remove();
+    if (statements != null) {
+      lastByRequest.put(request, List.copyOf(statements));
+    }
+  }
+
+  private void record(String sql) {
+    var statements = current.get();
+    if (statements != null) {
+      statements.add(sql);
+    }
+  }
+
+  // Connections and statements are proxied along the way. The sql of a prepared statement is
+  // known when it is prepared, that of a plain statement when it is executed.
+  private Object proxy(Class<?> type, Object target, String sql) {
+    InvocationHandler handler = (proxy, method, args) -> {
+      if (method.getName().equals("equals")) {
+        return proxy == args[0];
+      }
+      if (method.getName().equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      }
+      if (target instanceof Statement && method.getName().startsWith("execute")) {
+        record(sql != null ? sql : args != null && args[0] instanceof String text ? text : "batch");
+      }
+      var result = invoke(target, method, args);
+      var returnType = method.getReturnType();
+      if (result instanceof Connection && returnType == Connection.class) {
+        return proxy(Connection.class, result, null);
+      }
+      if (result instanceof Statement && Statement.class.isAssignableFrom(returnType)) {
+        return proxy(returnType, result,
+            args != null && args.length > 0 && args[0] instanceof String text ? text : null);
+      }
+      return result;
+    };
+    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.weareadaptive.auction;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records with the {@link StatementCounter} the statements of each request, authentication
+ * included, under its method and path.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountingFilter extends OncePerRequestFilter {
+  private final StatementCounter statementCounter;
+
+  public StatementCountingFilter(StatementCounter statementCounter) {
+    this.statementCounter = statementCounter;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    statementCounter.begin();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      statementCounter.end(request.getMethod() + " " + request.getRequestURI());
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.weareadaptive.auction.benchmark;
+
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.IntIndex;
+import com.weareadaptive.auction.model.State;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Object per bid store, indexed like the columnar one, kept as the baseline the columnar store
+ * is measured against.
+ */
+class BidState extends State<Bid> {
+  private final IntIndex byAuction = new IntIndex();
+  private final IntIndex byBidder = new IntIndex();
+
+  @Override
+  protected void onAdd(Bid model) {
+    byAuction.add(model.getAuctionId(), model.getId());
+    byBidder.add(model.getUserId(), model.getId());
+  }
+
+  @Override
+  protected void onRemove(Bid model) {
+    byAuction.remove(model.getAuctionId(), model.getId());
+    byBidder.remove(model.getUserId(), model.getId());
+  }
+
+  Stream<Bid> findByAuction(int auctionId) {
+    return byAuction.stream(auctionId).mapToObj(this::get).filter(Objects::nonNull);
+  }
+
+  Stream<Bid> findByBidder(int userId) {
+    return byBidder.stream(userId).mapToObj(this::get).filter(Objects::nonNull);
+  }
+}
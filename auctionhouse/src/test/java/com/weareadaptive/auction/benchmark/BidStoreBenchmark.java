@@ -0,0 +1,124 @@
+package com.weareadaptive.auction.benchmark;
+
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.repository.memory.ColumnarBidRepository;
+import com.weareadaptive.auction.repository.memory.InMemoryAuctionRepository;
+import com.weareadaptive.auction.repository.memory.VersionSequence;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Columnar versus object bid storage. {@link #main} prints the retained bytes per bid, the JMH
+ * benchmarks are meant to be run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BidStoreBenchmark {
+  private static final int BIDS = 1_000_000;
+  private static final int AUCTIONS = 10_000;
+  private static final AtomicInteger BIDDERS = new AtomicInteger();
+
+  private ColumnarBidRepository columnar;
+  private BidState objects;
+
+  @Setup
+  public void setUp() {
+    columnar = newColumnarStore();
+    objects = new BidState();
+    fillColumnar(columnar, BIDS);
+    fillObjects(objects, BIDS);
+  }
+
+  @Benchmark
+  public Bid columnarSave() {
+    return columnar.save(randomBid(0));
+  }
+
+  @Benchmark
+  public Bid objectSave() {
+    var bid = randomBid(objects.nextId());
+    objects.add(bid);
+    return bid;
+  }
+
+  @Benchmark
+  public List<Bid> columnarOrderedBook() {
+    return columnar.getBidsOrderedByPrice(ThreadLocalRandom.current().nextInt(AUCTIONS) + 1);
+  }
+
+  @Benchmark
+  public long objectOrderedBook() {
+    return objects.findByAuction(ThreadLocalRandom.current().nextInt(AUCTIONS) + 1)
+        .sorted((a, b) -> Double.compare(b.getPrice(), a.getPrice()))
+        .count();
+  }
+
+  public static void main(String[] args) {
+    var bids = args.length > 0 ? Integer.parseInt(args[0]) : 10 * BIDS;
+
+    var before = usedHeap();
+    var columnarStore = newColumnarStore();
+    fillColumnar(columnarStore, bids);
+    var columnarBytes = usedHeap() - before;
+
+    before = usedHeap();
+    var objectStore = new BidState();
+    fillObjects(objectStore, bids);
+    var objectBytes = usedHeap() - before;
+
+    System.out.printf("columnar: %d bytes/bid (%d bids)%n", columnarBytes / bids,
+        columnarStore.count());
+    System.out.printf("objects:  %d bytes/bid (%d bids)%n", objectBytes / bids,
+        objectStore.size());
+  }
+
+  private static ColumnarBidRepository newColumnarStore() {
+    var versionSequence = new VersionSequence();
+    return new ColumnarBidRepository(versionSequence,
+        new InMemoryAuctionRepository(versionSequence));
+  }
+
+  private static void fillColumnar(ColumnarBidRepository store, int bids) {
+    for (int i = 0; i < bids; i++) {
+      store.save(randomBid(0));
+    }
+  }
+
+  private static void fillObjects(BidState store, int bids) {
+    for (int i = 0; i < bids; i++) {
+      store.add(randomBid(store.nextId()));
+    }
+  }
+
+  private static Bid randomBid(int id) {
+    var random = ThreadLocalRandom.current();
+    var bid = new Bid(random.nextInt(AUCTIONS) + 1, BIDDERS.incrementAndGet(),
+        random.nextInt(100) + 1, random.nextDouble(1, 100));
+    bid.setId(id);
+    return bid;
+  }
+
+  private static long usedHeap() {
+    var runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
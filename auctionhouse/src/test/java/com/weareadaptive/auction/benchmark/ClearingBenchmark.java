@@ -0,0 +1,63 @@
+package com.weareadaptive.auction.benchmark;
+
+import com.weareadaptive.auction.model.AuctionClearing;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.Bid;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pay as bid versus uniform price clearing over the same ordered book, with the lot quantity
+ * set to half of the bid volume so that both winners and losers are visited.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClearingBenchmark {
+  @Param({"100", "10000"})
+  private int bids;
+
+  private List<Bid> orderedBook;
+  private int quantity;
+
+  @Setup
+  public void setUp() {
+    var random = ThreadLocalRandom.current();
+    orderedBook = new ArrayList<>(bids);
+    var volume = 0;
+    for (int i = 0; i < bids; i++) {
+      var bidQuantity = random.nextInt(1, 100);
+      orderedBook.add(new Bid(1, i + 1, bidQuantity, random.nextInt(100, 10_000) / 100.0));
+      volume += bidQuantity;
+    }
+    orderedBook.sort(Comparator.comparingDouble(Bid::getPrice).reversed());
+    quantity = volume / 2;
+  }
+
+  @Benchmark
+  public AuctionClearing.Result payAsBid() {
+    return AuctionClearing.clear(quantity, AuctionLot.ClearingMode.PAY_AS_BID, orderedBook);
+  }
+
+  @Benchmark
+  public AuctionClearing.Result uniformPrice() {
+    return AuctionClearing.clear(quantity, AuctionLot.ClearingMode.UNIFORM_PRICE, orderedBook);
+  }
+}
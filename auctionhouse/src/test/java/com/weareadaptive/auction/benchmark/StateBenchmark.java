@@ -0,0 +1,117 @@
+package com.weareadaptive.auction.benchmark;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.AuctionLotState;
+import com.weareadaptive.auction.model.BusinessException;
+import com.weareadaptive.auction.model.Entity;
+import com.weareadaptive.auction.model.State;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link State} with the HashMap backed implementation it replaced.
+ * Run with {@code java -cp <test classpath> org.openjdk.jmh.Main StateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class StateBenchmark {
+  private static final int OWNERS = 1_000;
+
+  @Param({"10000", "1000000"})
+  private int size;
+
+  private State<AuctionLot> state;
+  private HashMapState<AuctionLot> hashMapState;
+  private AuctionLot[] lots;
+
+  @Setup
+  public void setUp() {
+    state = new AuctionLotState();
+    hashMapState = new HashMapState<>();
+    lots = new AuctionLot[size];
+    for (int i = 0; i < size; i++) {
+      var lot = new AuctionLot(i % OWNERS + 1, "SYM", 1.0, 10);
+      lot.setId(i + 1);
+      lots[i] = lot;
+      state.add(lot);
+      hashMapState.add(lot);
+    }
+  }
+
+  @Benchmark
+  public AuctionLot stateGet() {
+    return state.get(ThreadLocalRandom.current().nextInt(size) + 1);
+  }
+
+  @Benchmark
+  public AuctionLot hashMapGet() {
+    return hashMapState.get(ThreadLocalRandom.current().nextInt(size) + 1);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(10_000)
+  public State<AuctionLot> stateAdd() {
+    var fresh = new AuctionLotState();
+    for (int i = 0; i < 10_000; i++) {
+      fresh.add(lots[i % size]);
+    }
+    return fresh;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(10_000)
+  public HashMapState<AuctionLot> hashMapAdd() {
+    var fresh = new HashMapState<AuctionLot>();
+    for (int i = 0; i < 10_000; i++) {
+      fresh.add(lots[i % size]);
+    }
+    return fresh;
+  }
+
+  @Benchmark
+  public long stateFindByOwner() {
+    return ((AuctionLotState) state).findByOwner(OWNERS / 2).count();
+  }
+
+  @Benchmark
+  public long hashMapFindByOwner() {
+    return hashMapState.stream().filter(lot -> lot.getOwnerId() == OWNERS / 2).count();
+  }
+
+  static class HashMapState<T extends Entity> {
+    private final Map<Integer, T> entities = new HashMap<>();
+
+    void add(T model) {
+      if (entities.containsKey(model.getId())) {
+        throw new BusinessException(State.ITEM_ALREADY_EXISTS);
+      }
+      entities.put(model.getId(), model);
+    }
+
+    T get(int id) {
+      return entities.get(id);
+    }
+
+    Stream<T> stream() {
+      return entities.values().stream();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.weareadaptive.auction.benchmark;
+
+import com.weareadaptive.auction.model.AuctionLot;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Retained heap of a million lots when each lot keeps its own normalized symbol string, as
+ * before the symbol dictionary, versus lots holding a dictionary code. A lot with a reference
+ * field has the same layout as one with an int field, so the per lot strings are held alongside
+ * the lots. Run with {@code java -cp <test classpath> org.openjdk.jmh.Main
+ * SymbolFootprintBenchmark} and read the retainedBytes counter.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class SymbolFootprintBenchmark {
+  @Param({"1000000"})
+  private int lots;
+
+  @Param({"1000"})
+  private int symbols;
+
+  @Benchmark
+  public Object perLotStrings(Footprint footprint) {
+    var before = usedHeap();
+    var lotArray = new AuctionLot[lots];
+    var symbolArray = new String[lots];
+    for (int i = 0; i < lots; i++) {
+      var symbol = "sym" + i % symbols;
+      lotArray[i] = new AuctionLot(1, symbol, 1.0, 10);
+      symbolArray[i] = AuctionLot.normalizeSymbol(symbol);
+    }
+    footprint.retainedBytes = usedHeap() - before;
+    return new Object[] {lotArray, symbolArray};
+  }
+
+  @Benchmark
+  public Object dictionaryCodes(Footprint footprint) {
+    var before = usedHeap();
+    var lotArray = new AuctionLot[lots];
+    for (int i = 0; i < lots; i++) {
+      lotArray[i] = new AuctionLot(1, "sym" + i % symbols, 1.0, 10);
+    }
+    footprint.retainedBytes = usedHeap() - before;
+    return lotArray;
+  }
+
+  private static long usedHeap() {
+    var memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Footprint {
+    public long retainedBytes;
+  }
+}
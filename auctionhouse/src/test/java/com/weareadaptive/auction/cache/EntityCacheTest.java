@@ -0,0 +1,97 @@
+package com.weareadaptive.auction.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.repository.UserRepository;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+public class EntityCacheTest extends IntegrationTest {
+  private static final String CHANNEL = "auction_cache_invalidation";
+
+  @Container
+  public static PostgreSQLContainer<?> postgreSQL =
+      new PostgreSQLContainer<>("postgres:13.2")
+          .withUsername("testUsername")
+          .withPassword("testPassword");
+
+  @Autowired
+  private EntityCache entityCache;
+  @Autowired
+  private UserRepository userRepository;
+
+  @DynamicPropertySource
+  public static void postgresProperties(@NotNull DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgreSQL::getJdbcUrl);
+    registry.add("spring.datasource.username", postgreSQL::getUsername);
+    registry.add("spring.datasource.password", postgreSQL::getPassword);
+    registry.add("auction.cache.coalesce-window", () -> "1s");
+  }
+
+  @DisplayName("A user changed on another node should be evicted from the cache")
+  @Test
+  public void findUser_shouldReloadUserInvalidatedByAnotherNode()
+      throws SQLException, InterruptedException {
+    var user = testData.createRandomUser();
+    var loads = new AtomicInteger();
+    entityCache.findUser(user.getUsername(), username -> {
+      loads.incrementAndGet();
+      return userRepository.findByName(username);
+    });
+    entityCache.findUser(user.getUsername(), userRepository::findByName);
+    assertEquals(1, loads.get());
+
+    try (var otherNode = DriverManager.getConnection(
+        postgreSQL.getJdbcUrl(), postgreSQL.getUsername(), postgreSQL.getPassword());
+         var statement = otherNode.prepareStatement("SELECT pg_notify(?, ?)")) {
+      statement.setString(1, CHANNEL);
+      statement.setString(2, "u" + user.getId());
+      statement.executeQuery().close();
+    }
+
+    var deadline = System.currentTimeMillis() + 5_000;
+    while (loads.get() == 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      entityCache.findUser(user.getUsername(), username -> {
+        loads.incrementAndGet();
+        return userRepository.findByName(username);
+      });
+    }
+    assertEquals(2, loads.get());
+  }
+
+  @DisplayName("A burst of changes should reach other nodes as one message")
+  @Test
+  public void userChanged_shouldPublishCoalescedInvalidation() throws SQLException {
+    var user = testData.createRandomUser();
+
+    try (var otherNode = DriverManager.getConnection(
+        postgreSQL.getJdbcUrl(), postgreSQL.getUsername(), postgreSQL.getPassword());
+         var statement = otherNode.createStatement()) {
+      statement.execute("LISTEN " + CHANNEL);
+
+      entityCache.userChanged(user.getId());
+      entityCache.userChanged(user.getId());
+      entityCache.auctionLotChanged(7);
+
+      var notifications = otherNode.unwrap(PGConnection.class).getNotifications(5_000);
+      assertEquals(1, notifications.length);
+      assertEquals(Set.of("u" + user.getId(), "a7"),
+          new HashSet<>(Arrays.asList(notifications[0].getParameter().split(","))));
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.weareadaptive.auction.cluster;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+import com.weareadaptive.auction.AuctionhouseWebApplication;
+import com.weareadaptive.auction.controller.dto.BidAuctionRequest;
+import com.weareadaptive.auction.idempotency.IdempotencyFilter;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.service.AuctionLotService;
+import com.weareadaptive.auction.service.UserService;
+import io.restassured.http.ContentType;
+import java.io.IOException;
+import java.net.ServerSocket;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Two in-memory nodes on one machine. Each node keeps its own state, so a command only succeeds
+ * through the other node when it is forwarded to the node owning the lot.
+ */
+public class ClusterForwardingTest {
+  private static final String OWNER = "cluster-owner";
+  private static final String BIDDER = "cluster-bidder";
+  private static final String PASSWORD = "mypassword";
+
+  private static int[] ports;
+  private static ConfigurableApplicationContext[] nodes;
+
+  @BeforeAll
+  public static void startNodes() throws IOException {
+    ports = new int[] {freePort(), freePort()};
+    var nodeList = "http://localhost:" + ports[0] + ",http://localhost:" + ports[1];
+    nodes = new ConfigurableApplicationContext[ports.length];
+    for (int node = 0; node < ports.length; node++) {
+      nodes[node] = new SpringApplicationBuilder(AuctionhouseWebApplication.class)
+          .profiles("in-memory")
+          .run("--server.port=" + ports[node],
+              "--auction.cluster.nodes=" + nodeList,
+              "--auction.cluster.self=" + node,
+              "--auction.cluster.secret=cluster-test-secret");
+      var userService = nodes[node].getBean(UserService.class);
+      userService.create(OWNER, PASSWORD, "Cluster", "Owner", "Adaptive");
+      userService.create(BIDDER, PASSWORD, "Cluster", "Bidder", "Adaptive");
+    }
+  }
+
+  @AfterAll
+  public static void stopNodes() {
+    for (ConfigurableApplicationContext node : nodes) {
+      node.close();
+    }
+  }
+
+  @DisplayName("A bid sent to another node should be applied by the node owning the lot")
+  @Test
+  public void bid_shouldBeForwardedToOwningNode() {
+    var auctionLot = createLotOwnedBy(0);
+
+    //@formatter:off
+    given()
+        .baseUri("http://localhost:" + ports[1])
+        .header(AUTHORIZATION, token(BIDDER))
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(4, 3.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(ForwardingFilter.HANDLED_BY, "0");
+
+    given()
+        .baseUri("http://localhost:" + ports[1])
+        .header(AUTHORIZATION, token(OWNER))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}/indicative")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(ForwardingFilter.HANDLED_BY, "0")
+        .body("bids", equalTo(1));
+    //@formatter:on
+  }
+
+  @DisplayName("A forwarded-by header without a valid signature should be ignored")
+  @Test
+  public void bid_shouldIgnoreForgedForwardedBy() {
+    var auctionLot = createLotOwnedBy(0);
+
+    //@formatter:off
+    given()
+        .baseUri("http://localhost:" + ports[1])
+        .header(AUTHORIZATION, token(BIDDER))
+        .header(ForwardingFilter.FORWARDED_BY, "1:forged")
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(4, 3.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(ForwardingFilter.HANDLED_BY, "0");
+    //@formatter:on
+  }
+
+  @DisplayName("A retried forwarded bid should relay the idempotency headers both ways")
+  @Test
+  public void bid_shouldRelayIdempotencyHeaders() {
+    var auctionLot = createLotOwnedBy(0);
+
+    var key = "forwarded-" + auctionLot.getId();
+
+    //@formatter:off
+    given()
+        .baseUri("http://localhost:" + ports[1])
+        .header(AUTHORIZATION, token(BIDDER))
+        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(4, 3.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value());
+
+    given()
+        .baseUri("http://localhost:" + ports[1])
+        .header(AUTHORIZATION, token(BIDDER))
+        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(4, 3.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(IdempotencyFilter.REPLAYED, "true");
+    //@formatter:on
+  }
+
+  @DisplayName("A lot command sent to its owning node should be handled there")
+  @Test
+  public void close_shouldBeHandledLocallyOnOwningNode() {
+    var auctionLot = createLotOwnedBy(1);
+
+    //@formatter:off
+    given()
+        .baseUri("http://localhost:" + ports[1])
+        .header(AUTHORIZATION, token(OWNER))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(ForwardingFilter.HANDLED_BY, "1");
+    //@formatter:on
+  }
+
+  private static AuctionLot createLotOwnedBy(int node) {
+    var membership = nodes[node].getBean(ClusterMembership.class);
+    var auctionLotService = nodes[node].getBean(AuctionLotService.class);
+    while (true) {
+      var auctionLot = auctionLotService.create(OWNER, "CLUSTER", 2.50, 10);
+      if (membership.isOwner(auctionLot.getId())) {
+        return auctionLot;
+      }
+    }
+  }
+
+  private static String token(String username) {
+    return "Bearer " + username + ":" + PASSWORD;
+  }
+
+  private static int freePort() throws IOException {
+    try (var socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -1,33 +1,50 @@
 package com.weareadaptive.auction.controller;
 
+import static com.weareadaptive.auction.TestData.ADMIN_AUTH_TOKEN;
 import static io.restassured.RestAssured.given;
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 import com.github.javafaker.Faker;
 import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.StatementCounter;
+import com.weareadaptive.auction.cache.EntityCache;
 import com.weareadaptive.auction.controller.dto.BidAuctionRequest;
 import com.weareadaptive.auction.controller.dto.CreateAuctionRequest;
+import com.weareadaptive.auction.datasource.ReadWriteRouting;
 import com.weareadaptive.auction.model.AuctionLot;
 import com.weareadaptive.auction.model.Bid;
 import com.weareadaptive.auction.model.User;
+import com.weareadaptive.auction.repository.AuctionRepository;
 import com.weareadaptive.auction.service.AuctionLotService;
+import com.weareadaptive.auction.service.UserService;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -37,6 +54,18 @@ public class AuctionControllerTest extends IntegrationTest {
   private static final Faker faker = new Faker();
   @Autowired
   private AuctionLotService auctionLotService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private ReadWriteRouting readWriteRouting;
+  @Autowired
+  private AuctionRepository auctionRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private StatementCounter statementCounter;
+  @Autowired
+  private EntityCache entityCache;
 
   @Container
   public static PostgreSQLContainer<?> postgreSQL =
@@ -49,6 +78,9 @@ public class AuctionControllerTest extends IntegrationTest {
     registry.add("spring.datasource.url", postgreSQL::getJdbcUrl);
     registry.add("spring.datasource.username", postgreSQL::getUsername);
     registry.add("spring.datasource.password", postgreSQL::getPassword);
+    registry.add("auction.datasource.replica.url", () -> replicaUrl(postgreSQL.getJdbcUrl()));
+    registry.add("auction.datasource.replica.username", postgreSQL::getUsername);
+    registry.add("auction.datasource.replica.password", postgreSQL::getPassword);
   }
 
   @DisplayName("Create should create and return new auction")
@@ -185,6 +217,174 @@ public class AuctionControllerTest extends IntegrationTest {
     //@formatter:on
   }
 
+  @DisplayName("Get all should issue the same few statements whatever the number of lots")
+  @Test
+  public void getAll_shouldNotIssueStatementsPerLot() {
+    var owner = testData.user1();
+    var bidder = testData.user2();
+    getAllAuctions(owner);
+    var statements = statementCounter.countOf("GET /auctions");
+
+    for (int i = 0; i < 5; i++) {
+      var auctionLot = createRandomAuctionLot(owner);
+      auctionLotService.bid(auctionLot.getId(), 1, 2.00, bidder.getUsername());
+      createRandomAuctionLot(testData.user3());
+    }
+    getAllAuctions(owner);
+
+    assertEquals(statements, statementCounter.countOf("GET /auctions"));
+    statementCounter.assertAtMost("GET /auctions", 3);
+  }
+
+  @DisplayName("Get all since version should return only auctions changed after it")
+  @Test
+  public void getAllSinceVersion_returnOnlyChangedAuctions() {
+    var auctionLot1 = createRandomAuctionLot(testData.user1());
+    int version = given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", 0)
+        .get("/auctions")
+        .path("version");
+    var auctionLot2 = createRandomAuctionLot(testData.user2());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", version)
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("auctions.id", not(hasItem(auctionLot1.getId())))
+        .body("auctions.id", hasItem(auctionLot2.getId()))
+        .body("version", greaterThan(version));
+    //@formatter:on
+  }
+
+  @DisplayName("Get all since version should return NOT_MODIFIED when nothing changed")
+  @Test
+  public void getAllSinceVersion_returnNotModifiedWhenUnchanged() {
+    createRandomAuctionLot(testData.user1());
+    int version = given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", 0)
+        .get("/auctions")
+        .path("version");
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", version)
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(NOT_MODIFIED.value());
+    //@formatter:on
+  }
+
+  @DisplayName("Search should return open auctions matching the symbol prefix")
+  @Test
+  public void search_returnOpenAuctionsMatchingPrefix() {
+    var owner = testData.user1();
+    var id = faker.number().digits(6);
+    var matching = auctionLotService.create(owner.getUsername(), "QZX" + id, 1.0, 10);
+    var closed = auctionLotService.create(owner.getUsername(), "QZX" + id + "C", 1.0, 10);
+    var other = auctionLotService.create(owner.getUsername(), "QZY" + id, 1.0, 10);
+    auctionLotService.close(closed.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .queryParam("symbol", "qzx" + id)
+        .queryParam("status", "OPENED")
+    .when()
+        .get("/auctions/search")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("id", hasItem(matching.getId()))
+        .body("id", not(hasItem(closed.getId())))
+        .body("id", not(hasItem(other.getId())));
+    //@formatter:on
+  }
+
+  @DisplayName("Symbol stats should aggregate closed auctions of the symbol")
+  @Test
+  public void symbolStats_shouldAggregateClosedAuctions() {
+    var owner = testData.user1();
+    var symbol = "ST" + faker.number().digits(6);
+    var auctionLot = auctionLotService.create(owner.getUsername(), symbol, 2.50, 10);
+    auctionLotService.bid(auctionLot.getId(), 3, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 7, 4.00, testData.user4().getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+    var secondLot = auctionLotService.create(owner.getUsername(), symbol, 2.50, 10);
+    auctionLotService.bid(secondLot.getId(), 10, 4.15, testData.user2().getUsername());
+    auctionLotService.close(secondLot.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .pathParam("symbol", symbol)
+    .when()
+        .get("/symbols/{symbol}/stats")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("symbol", equalTo(symbol))
+        .body("buckets.size()", equalTo(1))
+        .body("buckets[0].open", equalTo(3.5f))
+        .body("buckets[0].high", equalTo(4.15f))
+        .body("buckets[0].low", equalTo(3.5f))
+        .body("buckets[0].close", equalTo(4.15f))
+        .body("buckets[0].vwap", equalTo(4.0f))
+        .body("buckets[0].volume", equalTo(20));
+    //@formatter:on
+  }
+
+  @DisplayName("Organisation should aggregate users, lots and bids of its members")
+  @Test
+  public void organisation_shouldAggregateMembersActivity() {
+    var organisation = "Org " + System.nanoTime();
+    var owner = userService.create("owner" + System.nanoTime(), "pwd", "first", "last",
+        organisation);
+    var bidder = userService.create("bidder" + System.nanoTime(), "pwd", "first", "last",
+        organisation);
+    var auctionLot = auctionLotService.create(owner.getUsername(), "ORGS", 1.00, 10);
+    auctionLotService.create(owner.getUsername(), "ORGS", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 4, 2.50, bidder.getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .pathParam("name", organisation)
+    .when()
+        .get("/organisations/{name}")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("users", equalTo(2))
+        .body("openLots", equalTo(1))
+        .body("bidsPlaced", equalTo(1))
+        .body("quantityWon", equalTo(4))
+        .body("revenue", equalTo(10.0f));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+    .when()
+        .get("/organisations")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("organisationName", hasItem(organisation));
+    //@formatter:on
+  }
+
   @DisplayName("Bid by auction id should return created bid")
   @Test
   public void bid_shouldReturnAuctionBid() {
@@ -258,6 +458,150 @@ public class AuctionControllerTest extends IntegrationTest {
     //@formatter:on
   }
 
+  @DisplayName("Bid should amend the existing bid when the user bids again")
+  @Test
+  public void bid_shouldAmendExistingBidOfUser() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "AMND", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 3, 2.00, testData.user2().getUsername());
+    var bidRequest = new BidAuctionRequest(4, 2.50);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(bidRequest)
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value());
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}/all-bids")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("size()", equalTo(1))
+        .body("[0].quantity", equalTo(4))
+        .body("[0].price", equalTo(2.5f));
+    //@formatter:on
+  }
+
+  @DisplayName("Amend and cancel should reposition the bid in the order book")
+  @Test
+  public void amendAndCancel_shouldRepositionBidInBook() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "BOOK", 1.00, 5);
+    auctionLotService.bid(auctionLot.getId(), 5, 2.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(5, 3.50))
+    .when()
+        .put("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("bidPrice", equalTo(3.5f));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(testData.user4()))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .delete("/auctions/{id}/bid")
+    .then()
+        .statusCode(NO_CONTENT.value());
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("winningBids.size()", equalTo(1))
+        .body("winningBids[0].userId", equalTo(testData.user2().getId()))
+        .body("totalRevenue", equalTo(17.5f));
+    //@formatter:on
+  }
+
+  @DisplayName("Amend should return NOT_FOUND when the user has no bid")
+  @Test
+  public void amend_shouldReturnNotFoundWithoutBid() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "NOBD", 1.00, 5);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(1, 2.00))
+    .when()
+        .put("/auctions/{id}/bid")
+    .then()
+        .statusCode(NOT_FOUND.value());
+    //@formatter:on
+  }
+
+  @DisplayName("Indicative should return the marginal winning price of the book")
+  @Test
+  public void indicative_shouldReturnMarginalWinningPrice() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "INDC", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}/indicative")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("price", equalTo(3.5f))
+        .body("filled", equalTo(true))
+        .body("winningQuantity", equalTo(10))
+        .body("bids", equalTo(3));
+    //@formatter:on
+  }
+
+  @DisplayName("Bid should be rejected below the indicative price of a filled lot")
+  @Test
+  public void bid_shouldRejectNonCompetitiveBid() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "RJCT", 1.00, 5,
+        AuctionLot.ClearingMode.PAY_AS_BID, true);
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user2().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user3Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(5, 2.50))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(BAD_REQUEST.value())
+        .body("message", containsString("indicative price 3.0"));
+    //@formatter:on
+  }
+
   @DisplayName("get all bids should return list of bid for an auction by id")
   @Test
   public void getAllBids_shouldReturnBidsOfAuction() {
@@ -350,6 +694,34 @@ public class AuctionControllerTest extends IntegrationTest {
     //@formatter:on
   }
 
+  @DisplayName("Close should charge every winner the clearing price for uniform price lots")
+  @Test
+  public void close_shouldChargeClearingPriceForUniformPriceLots() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(
+        owner.getUsername(), "UNIF", 2.50, 10, AuctionLot.ClearingMode.UNIFORM_PRICE);
+    auctionLotService.bid(auctionLot.getId(), 3, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 7, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("clearingMode", equalTo(valueOf(AuctionLot.ClearingMode.UNIFORM_PRICE)))
+        .body("winningBids.size()", equalTo(2))
+        .body("winningBids[1].winQuantity", equalTo(3))
+        .body("totalSoldQuantity", equalTo(10))
+        .body("clearingPrice", equalTo(3.5f))
+        .body("totalRevenue", equalTo(35.0f));
+    //@formatter:on
+  }
+
   @DisplayName("close should return UNAUTHORIZED for non-owner")
   @Test
   public void close_shouldReturnUnauthorizedForNonOwner() {
@@ -433,6 +805,48 @@ public class AuctionControllerTest extends IntegrationTest {
     //@formatter:on
   }
 
+  @DisplayName("Get summary should find the auction once it is archived")
+  @Test
+  public void getSummary_shouldReturnClosingSummaryOfArchivedAuction() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "ARCH", 2.50, 10);
+    auctionLotService.bid(auctionLot.getId(), 4, 3.00, testData.user2().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value());
+    //@formatter:on
+
+    auctionRepository.archiveClosedBefore(Instant.now().plusSeconds(1), 0, 1, 1000);
+    assertEquals(1, jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM auction_lot_archive WHERE id = ?", Integer.class,
+        auctionLot.getId()));
+    assertEquals(1, jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM auction_bid_archive WHERE auction_id = ?", Integer.class,
+        auctionLot.getId()));
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}/close-summary")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("winningBids.size()", equalTo(1))
+        .body("winningBids[0].userId", equalTo(testData.user2().getId()))
+        .body("totalSoldQuantity", equalTo(4))
+        .body("totalRevenue", equalTo((float) (4 * 3.00)));
+    //@formatter:on
+  }
+
   @DisplayName("Get summary should return BAD_REQUEST for opened auction")
   @Test
   public void getSummary_shouldReturnBadRequestForOpenedAuction() {
@@ -477,6 +891,77 @@ public class AuctionControllerTest extends IntegrationTest {
     //@formatter:on
   }
 
+  @DisplayName("Reads right after a write should be served by the primary")
+  @Test
+  public void search_shouldReadOwnWriteWithinStalenessBound() {
+    var symbol = "RYW" + faker.random().nextInt(100_000);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user4Token())
+        .contentType(ContentType.JSON)
+        .body(new CreateAuctionRequest(symbol, 1.0, 10))
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(CREATED.value());
+    //@formatter:on
+
+    assertTrue(readWriteRouting.wroteRecently(testData.user4().getUsername()));
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user4Token())
+        .queryParam("symbol", symbol)
+    .when()
+        .get("/auctions/search")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("symbol", hasItem(symbol));
+    //@formatter:on
+  }
+
+  @DisplayName("Lots read while routed to the replica should be returned but not cached")
+  @Test
+  public void getById_shouldNotCacheLotsReadFromReplica() {
+    var auctionLot = createRandomAuctionLot(testData.user1());
+    var loads = new AtomicInteger();
+    Function<Integer, Optional<AuctionLot>> loader = id -> {
+      loads.incrementAndGet();
+      return Optional.of(auctionLot);
+    };
+
+    readWriteRouting.routeToReplica(true);
+    try {
+      entityCache.findAuctionLot(auctionLot.getId(), loader);
+      entityCache.findAuctionLot(auctionLot.getId(), loader);
+    } finally {
+      readWriteRouting.clear();
+    }
+    assertEquals(2, loads.get());
+
+    entityCache.findAuctionLot(auctionLot.getId(), loader);
+    entityCache.findAuctionLot(auctionLot.getId(), loader);
+    assertEquals(3, loads.get());
+  }
+
+  // Requested twice so that the credential check of the measured request hits the user cache.
+  private void getAllAuctions(User user) {
+    for (int i = 0; i < 2; i++) {
+      //@formatter:off
+      given()
+          .baseUri(uri)
+          .header(AUTHORIZATION, testData.getToken(user))
+      .when()
+          .get("/auctions")
+      .then()
+          .statusCode(HttpStatus.OK.value());
+      //@formatter:on
+    }
+  }
+
   private AuctionLot createRandomAuctionLot(User user) {
     return auctionLotService.create(
         user.getUsername(),
@@ -0,0 +1,778 @@
+package com.weareadaptive.auction.controller;
+
+import static com.weareadaptive.auction.TestData.ADMIN_AUTH_TOKEN;
+import static com.weareadaptive.auction.idempotency.IdempotencyFilter.IDEMPOTENCY_KEY;
+import static com.weareadaptive.auction.idempotency.IdempotencyFilter.REPLAYED;
+import static io.restassured.RestAssured.given;
+import static java.lang.String.valueOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.controller.dto.BidAuctionRequest;
+import com.weareadaptive.auction.controller.dto.CreateAuctionRequest;
+import com.weareadaptive.auction.model.AuctionLot;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.model.BusinessException;
+import com.weareadaptive.auction.repository.AuctionRepository;
+import com.weareadaptive.auction.repository.AuctionRepository.LotLock;
+import com.weareadaptive.auction.repository.BidRepository;
+import com.weareadaptive.auction.service.AuctionLotService;
+import com.weareadaptive.auction.service.UserService;
+import io.restassured.http.ContentType;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@ActiveProfiles("in-memory")
+@TestPropertySource(properties = "auction.close.derive-lost-bids=true")
+public class InMemoryAuctionControllerTest extends IntegrationTest {
+  @Autowired
+  private AuctionLotService auctionLotService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private AuctionRepository auctionRepository;
+  @Autowired
+  private BidRepository bidRepository;
+
+  @DisplayName("Create should store the auction in memory")
+  @Test
+  public void create_shouldReturnAuctionIfCreated() {
+    var createRequest = new CreateAuctionRequest("MSFT", 1.50, 20);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .contentType(ContentType.JSON)
+        .body(createRequest)
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(CREATED.value())
+        .body("id", greaterThan(0))
+        .body("symbol", equalTo("MSFT"))
+        .body("quantity", equalTo(20));
+    //@formatter:on
+  }
+
+  @DisplayName("Close should settle the bids stored in memory")
+  @Test
+  public void close_shouldReturnClosingSummary() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "TEST", 2.50, 10);
+    auctionLotService.bid(auctionLot.getId(), 3, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 7, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("winningBids.size()", equalTo(2))
+        .body("winningBids[0].userId", equalTo(testData.user4().getId()))
+        .body("winningBids[0].state", equalTo(valueOf(Bid.State.WIN)))
+        .body("winningBids[1].winQuantity", equalTo(3))
+        .body("totalSoldQuantity", equalTo(10))
+        .body("totalRevenue", equalTo((float) (7 * 4.00 + 3 * 3.50)));
+    //@formatter:on
+  }
+
+  @DisplayName("Close should charge every winner the clearing price for uniform price lots")
+  @Test
+  public void close_shouldChargeClearingPriceForUniformPriceLots() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(
+        owner.getUsername(), "UNIF", 2.50, 10, AuctionLot.ClearingMode.UNIFORM_PRICE);
+    auctionLotService.bid(auctionLot.getId(), 3, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 7, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("clearingMode", equalTo(valueOf(AuctionLot.ClearingMode.UNIFORM_PRICE)))
+        .body("winningBids.size()", equalTo(2))
+        .body("winningBids[1].winQuantity", equalTo(3))
+        .body("totalSoldQuantity", equalTo(10))
+        .body("clearingPrice", equalTo(3.5f))
+        .body("totalRevenue", equalTo(35.0f));
+    //@formatter:on
+  }
+
+  @DisplayName("Bid should amend the existing bid when the user bids again")
+  @Test
+  public void bid_shouldAmendExistingBidOfUser() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "AMND", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 3, 2.00, testData.user2().getUsername());
+    var bidRequest = new BidAuctionRequest(4, 2.50);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(bidRequest)
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value());
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}/all-bids")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("size()", equalTo(1))
+        .body("[0].quantity", equalTo(4))
+        .body("[0].price", equalTo(2.5f));
+    //@formatter:on
+  }
+
+  @DisplayName("Amend and cancel should reposition the bid in the order book")
+  @Test
+  public void amendAndCancel_shouldRepositionBidInBook() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "BOOK", 1.00, 5);
+    auctionLotService.bid(auctionLot.getId(), 5, 2.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(5, 3.50))
+    .when()
+        .put("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("bidPrice", equalTo(3.5f));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(testData.user4()))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .delete("/auctions/{id}/bid")
+    .then()
+        .statusCode(NO_CONTENT.value());
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .post("/auctions/{id}/close")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("winningBids.size()", equalTo(1))
+        .body("winningBids[0].userId", equalTo(testData.user2().getId()))
+        .body("totalRevenue", equalTo(17.5f));
+    //@formatter:on
+  }
+
+  @DisplayName("Amend should return NOT_FOUND when the user has no bid")
+  @Test
+  public void amend_shouldReturnNotFoundWithoutBid() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "NOBD", 1.00, 5);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(1, 2.00))
+    .when()
+        .put("/auctions/{id}/bid")
+    .then()
+        .statusCode(NOT_FOUND.value());
+    //@formatter:on
+  }
+
+  @DisplayName("Indicative should return the marginal winning price of the book")
+  @Test
+  public void indicative_shouldReturnMarginalWinningPrice() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "INDC", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 4.00, testData.user4().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}/indicative")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("price", equalTo(3.5f))
+        .body("filled", equalTo(true))
+        .body("winningQuantity", equalTo(10))
+        .body("bids", equalTo(3));
+    //@formatter:on
+  }
+
+  @DisplayName("Bid should be rejected below the indicative price of a filled lot")
+  @Test
+  public void bid_shouldRejectNonCompetitiveBid() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "RJCT", 1.00, 5,
+        AuctionLot.ClearingMode.PAY_AS_BID, true);
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user2().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user3Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(5, 2.50))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(BAD_REQUEST.value())
+        .body("message", containsString("indicative price 3.0"));
+    //@formatter:on
+  }
+
+  @DisplayName("Amend should be rejected below the indicative price of a filled lot")
+  @Test
+  public void amend_shouldRejectNonCompetitiveBid() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "RJCT", 1.00, 5,
+        AuctionLot.ClearingMode.PAY_AS_BID, true);
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user3Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(5, 2.50))
+    .when()
+        .put("/auctions/{id}/bid")
+    .then()
+        .statusCode(BAD_REQUEST.value())
+        .body("message", containsString("indicative price 3.0"));
+    //@formatter:on
+  }
+
+  @DisplayName("Close should only write winners and derive the losing bids on read")
+  @Test
+  public void close_shouldDeriveLosingBidsOnRead() {
+    var owner = testData.user1();
+    var loser = testData.user2();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "LAZY", 1.00, 5);
+    auctionLotService.bid(auctionLot.getId(), 5, 2.00, loser.getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user3().getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+
+    var stored = bidRepository.getBidByBidderId(auctionLot.getId(), loser.getId());
+    assertEquals(Bid.State.PENDING, stored.orElseThrow().getState());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(loser))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("bid.state", equalTo(valueOf(Bid.State.LOST)))
+        .body("bid.winQuantity", equalTo(0));
+    //@formatter:on
+  }
+
+  @DisplayName("Close should allocate a bid stored after the order book was loaded")
+  @Test
+  public void close_shouldAllocateBidsMissingFromOrderBook() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "BOOK", 1.00, 5);
+    auctionLotService.bid(auctionLot.getId(), 5, 2.00, testData.user2().getUsername());
+    auctionLotService.getIndicativePrice(auctionLot.getId());
+    // Placed through another node, so the order book of this one never sees it
+    var elsewhere = bidRepository.save(
+        new Bid(auctionLot.getId(), testData.user3().getId(), 5, 3.00));
+
+    var summary = auctionLotService.close(auctionLot.getId(), owner::getUsername);
+
+    assertEquals(1, summary.winningBids().size());
+    assertEquals(elsewhere.getId(), summary.winningBids().get(0).getId());
+    assertEquals(15.0, summary.totalRevenue());
+  }
+
+  @DisplayName("A bid should wait for a close in progress and then be rejected")
+  @Test
+  public void bid_shouldNotBeWrittenDuringClose() throws Exception {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "LOCK", 1.00, 5);
+    var started = new CountDownLatch(1);
+
+    var bid = auctionRepository.inLotTransaction(auctionLot.getId(), LotLock.EXCLUSIVE,
+        status -> {
+          var pending = CompletableFuture.runAsync(() -> {
+            started.countDown();
+            auctionLotService.bid(auctionLot.getId(), 5, 2.00, testData.user2().getUsername());
+          });
+          awaitQuietly(started);
+          auctionLotService.close(auctionLot.getId(), owner::getUsername);
+          assertFalse(pending.isDone());
+          return pending;
+        });
+
+    var failure = assertThrows(ExecutionException.class, () -> bid.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(BusinessException.class, failure.getCause());
+    assertTrue(bidRepository.getAuctionBids(auctionLot.getId()).isEmpty());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+      Thread.sleep(100);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @DisplayName("Close should resolve a bid written after it as lost")
+  @Test
+  public void close_shouldResolveLateBidsAsLost() {
+    var owner = testData.user1();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "LATE", 1.00, 5);
+    auctionLotService.bid(auctionLot.getId(), 5, 2.00, testData.user2().getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+    var late = bidRepository.save(
+        new Bid(auctionLot.getId(), testData.user3().getId(), 5, 9.00));
+    var findLate = "bids.find { it.id == " + late.getId() + " }.";
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+        .pathParam("id", auctionLot.getId())
+    .when()
+        .get("/auctions/{id}")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body(findLate + "state", equalTo(valueOf(Bid.State.LOST)));
+    //@formatter:on
+  }
+
+  @DisplayName("Get all should list every bid to the owner and only their own to a bidder")
+  @Test
+  public void getAll_shouldListBidsVisibleToUser() {
+    var owner = testData.user1();
+    var loser = testData.user2();
+    var auctionLot = auctionLotService.create(owner.getUsername(), "LIST", 1.00, 5);
+    auctionLotService.bid(auctionLot.getId(), 5, 2.00, loser.getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.00, testData.user3().getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+    var find = "find { it.id == " + auctionLot.getId() + " }.";
+    var findLoser = find + "bids.find { it.userId == " + loser.getId() + " }.";
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(owner))
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body(find + "bids.size()", equalTo(2))
+        .body(findLoser + "state", equalTo(valueOf(Bid.State.LOST)));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.getToken(loser))
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body(find + "bids", equalTo(null))
+        .body(find + "bid.userId", equalTo(loser.getId()))
+        .body(find + "bid.state", equalTo(valueOf(Bid.State.LOST)));
+    //@formatter:on
+  }
+
+  @DisplayName("Get all since version should return NOT_MODIFIED when nothing changed")
+  @Test
+  public void getAllSinceVersion_returnNotModifiedWhenUnchanged() {
+    auctionLotService.create(testData.user1().getUsername(), "AAPL", 1, 5);
+    int version = given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", 0)
+        .get("/auctions")
+        .path("version");
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", version)
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(NOT_MODIFIED.value());
+    //@formatter:on
+  }
+
+  @DisplayName("Get all since version should read from the version in If-None-Match")
+  @Test
+  public void getAllSinceVersion_shouldHonourIfNoneMatch() {
+    var unchanged = auctionLotService.create(testData.user1().getUsername(), "ETAG", 1, 5);
+    var etag = given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", 0)
+        .get("/auctions")
+        .header(ETAG);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IF_NONE_MATCH, etag)
+        .queryParam("sinceVersion", 0)
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(NOT_MODIFIED.value())
+        .header(ETAG, etag);
+    //@formatter:on
+
+    var changed = auctionLotService.create(testData.user1().getUsername(), "ETAG", 1, 5);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IF_NONE_MATCH, etag)
+        .queryParam("sinceVersion", 0)
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("auctions.id", not(hasItem(unchanged.getId())))
+        .body("auctions.id", hasItem(changed.getId()));
+    //@formatter:on
+  }
+
+  @DisplayName("Get by id should return a copy that callers cannot change for other requests")
+  @Test
+  public void getById_shouldNotShareCachedLots() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "COPY", 1, 5);
+    auctionLotService.getById(auctionLot.getId()).setStatus(AuctionLot.Status.CLOSED);
+
+    assertEquals(AuctionLot.Status.OPENED,
+        auctionLotService.getById(auctionLot.getId()).getStatus());
+  }
+
+  @DisplayName("Bid should be rejected when the lot was closed after it was cached")
+  @Test
+  public void bid_shouldReadStatusPastTheCache() {
+    var auctionLot = auctionLotService.create(testData.user1().getUsername(), "STALE", 1, 5);
+    var closed = auctionLotService.getById(auctionLot.getId());
+    closed.setStatus(AuctionLot.Status.CLOSED);
+    assertTrue(auctionRepository.closeIfOpen(closed));
+    assertFalse(auctionRepository.closeIfOpen(closed));
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(1, 2.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(BAD_REQUEST.value())
+        .body("message", containsString("is closed"));
+    //@formatter:on
+  }
+
+  @DisplayName("Search should return open auctions matching the symbol prefix")
+  @Test
+  public void search_returnOpenAuctionsMatchingPrefix() {
+    var owner = testData.user1();
+    var matching = auctionLotService.create(owner.getUsername(), "QZX1", 1.0, 10);
+    var closed = auctionLotService.create(owner.getUsername(), "QZX1C", 1.0, 10);
+    var other = auctionLotService.create(owner.getUsername(), "QZY1", 1.0, 10);
+    auctionLotService.close(closed.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .queryParam("symbol", "qzx1")
+        .queryParam("status", "OPENED")
+    .when()
+        .get("/auctions/search")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("id", hasItem(matching.getId()))
+        .body("id", not(hasItem(closed.getId())))
+        .body("id", not(hasItem(other.getId())));
+    //@formatter:on
+  }
+
+  @DisplayName("Search should return closed or all auctions matching the symbol prefix")
+  @Test
+  public void search_returnClosedAndAllAuctionsMatchingPrefix() {
+    var owner = testData.user1();
+    var open = auctionLotService.create(owner.getUsername(), "QZW1", 1.0, 10);
+    var closed = auctionLotService.create(owner.getUsername(), "QZW1C", 1.0, 10);
+    var other = auctionLotService.create(owner.getUsername(), "QZV1", 1.0, 10);
+    auctionLotService.close(closed.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .queryParam("symbol", "qzw1")
+        .queryParam("status", "CLOSED")
+    .when()
+        .get("/auctions/search")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("id", contains(closed.getId()));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .queryParam("symbol", "qzw1")
+    .when()
+        .get("/auctions/search")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("id", contains(open.getId(), closed.getId()))
+        .body("id", not(hasItem(other.getId())));
+    //@formatter:on
+  }
+
+  @DisplayName("Symbol stats should aggregate closed auctions of the symbol")
+  @Test
+  public void symbolStats_shouldAggregateClosedAuctions() {
+    var owner = testData.user1();
+    var symbol = "STAT";
+    var auctionLot = auctionLotService.create(owner.getUsername(), symbol, 2.50, 10);
+    auctionLotService.bid(auctionLot.getId(), 3, 3.00, testData.user2().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 5, 3.50, testData.user3().getUsername());
+    auctionLotService.bid(auctionLot.getId(), 7, 4.00, testData.user4().getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+    var secondLot = auctionLotService.create(owner.getUsername(), symbol, 2.50, 10);
+    auctionLotService.bid(secondLot.getId(), 10, 4.15, testData.user2().getUsername());
+    auctionLotService.close(secondLot.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user2Token())
+        .pathParam("symbol", symbol)
+    .when()
+        .get("/symbols/{symbol}/stats")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("symbol", equalTo(symbol))
+        .body("buckets.size()", equalTo(1))
+        .body("buckets[0].open", equalTo(3.5f))
+        .body("buckets[0].high", equalTo(4.15f))
+        .body("buckets[0].low", equalTo(3.5f))
+        .body("buckets[0].close", equalTo(4.15f))
+        .body("buckets[0].vwap", equalTo(4.0f))
+        .body("buckets[0].volume", equalTo(20));
+    //@formatter:on
+  }
+
+  @DisplayName("Organisation should aggregate users, lots and bids of its members")
+  @Test
+  public void organisation_shouldAggregateMembersActivity() {
+    var organisation = "Org " + System.nanoTime();
+    var owner = userService.create("owner" + System.nanoTime(), "pwd", "first", "last",
+        organisation);
+    var bidder = userService.create("bidder" + System.nanoTime(), "pwd", "first", "last",
+        organisation);
+    var auctionLot = auctionLotService.create(owner.getUsername(), "ORGS", 1.00, 10);
+    auctionLotService.create(owner.getUsername(), "ORGS", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 4, 2.50, bidder.getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .pathParam("name", organisation)
+    .when()
+        .get("/organisations/{name}")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("users", equalTo(2))
+        .body("openLots", equalTo(1))
+        .body("bidsPlaced", equalTo(1))
+        .body("quantityWon", equalTo(4))
+        .body("revenue", equalTo(10.0f));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+    .when()
+        .get("/organisations")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("organisationName", hasItem(organisation));
+    //@formatter:on
+  }
+
+  @DisplayName("Organisation should follow members that move, as a rebuild would count them")
+  @Test
+  public void organisation_shouldMoveActivityWithMember() {
+    var organisation = "Org " + System.nanoTime();
+    var destination = "Dest " + System.nanoTime();
+    var owner = userService.create("owner" + System.nanoTime(), "pwd", "first", "last",
+        organisation);
+    var bidder = userService.create("bidder" + System.nanoTime(), "pwd", "first", "last",
+        organisation);
+    var auctionLot = auctionLotService.create(owner.getUsername(), "ORGM", 1.00, 10);
+    auctionLotService.bid(auctionLot.getId(), 4, 2.50, bidder.getUsername());
+    auctionLotService.close(auctionLot.getId(), owner::getUsername);
+    userService.updateById(bidder.getId(), "first", "last", destination);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .pathParam("name", organisation)
+    .when()
+        .get("/organisations/{name}")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("users", equalTo(1))
+        .body("bidsPlaced", equalTo(0))
+        .body("quantityWon", equalTo(0))
+        .body("revenue", equalTo(10.0f));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .pathParam("name", destination)
+    .when()
+        .get("/organisations/{name}")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("users", equalTo(1))
+        .body("bidsPlaced", equalTo(1))
+        .body("quantityWon", equalTo(4));
+    //@formatter:on
+  }
+
+  @DisplayName("create should run once when retried with the same idempotency key")
+  @Test
+  public void create_shouldReplayResponseForRepeatedIdempotencyKey() {
+    var createRequest = new CreateAuctionRequest("IDEMP", 1.50, 20);
+    var key = UUID.randomUUID().toString();
+
+    //@formatter:off
+    int id =
+        given()
+            .baseUri(uri)
+            .header(AUTHORIZATION, testData.user1Token())
+            .header(IDEMPOTENCY_KEY, key)
+            .contentType(ContentType.JSON)
+            .body(createRequest)
+        .when()
+            .post("/auctions")
+        .then()
+            .statusCode(CREATED.value())
+            .extract().path("id");
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .body(createRequest)
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(CREATED.value())
+        .header(REPLAYED, "true")
+        .body("id", equalTo(id));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .body(new BidAuctionRequest(2, 2.00))
+    .when()
+        .post("/auctions/" + id + "/bid")
+    .then()
+        .statusCode(UNPROCESSABLE_ENTITY.value());
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .body(new CreateAuctionRequest("IDEMP", 1.50, 30))
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(UNPROCESSABLE_ENTITY.value())
+        .body("message", containsString("another request body"));
+    //@formatter:on
+
+    assertEquals(1,
+        auctionRepository.findViewsBySymbolPrefixAndStatus("IDEMP", AuctionLot.Status.OPENED).size());
+  }
+}
@@ -0,0 +1,131 @@
+package com.weareadaptive.auction.controller;
+
+import static com.weareadaptive.auction.TestData.ADMIN_AUTH_TOKEN;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.LINK;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.controller.dto.CreateUserRequest;
+import com.weareadaptive.auction.service.UserService;
+import io.restassured.http.ContentType;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("in-memory")
+public class InMemoryUserControllerTest extends IntegrationTest {
+  @Autowired
+  private UserService userService;
+
+  @DisplayName("create should return a bad request when the username is duplicated")
+  @Test
+  public void createUser_shouldReturnBadRequestIfUserExist() {
+    var user = testData.user1();
+    var createRequest = new CreateUserRequest(user.getUsername(), "password1",
+        user.getFirstName(), user.getLastName(), user.getOrganisation());
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .contentType(ContentType.JSON)
+        .body(createRequest)
+    .when()
+        .post("/users")
+    .then()
+        .statusCode(BAD_REQUEST.value())
+        .body("message", containsString("already exist"));
+    //@formatter:on
+  }
+
+  @DisplayName("getAll should page users by id and link to the next page")
+  @Test
+  public void getAll_shouldReturnKeysetPage() {
+    var organisation = "Keyset " + System.nanoTime();
+    var first = userService.create("keyset1" + organisation, "pwd", "first", "last", organisation);
+    var second = userService.create("keyset2" + organisation, "pwd", "first", "last", organisation);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .queryParam("organisation", organisation)
+        .queryParam("limit", 1)
+    .when()
+        .get("/users")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(LINK, containsString("afterId=" + first.getId()))
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(first.getId()));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .queryParam("organisation", organisation)
+        .queryParam("afterId", first.getId())
+        .queryParam("limit", 1)
+    .when()
+        .get("/users")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(second.getId()));
+    //@formatter:on
+  }
+
+  @DisplayName("stream should write the filtered users as NDJSON")
+  @Test
+  public void stream_shouldWriteUsersAsNdjson() {
+    var organisation = "Stream " + System.nanoTime();
+    userService.create("stream1" + organisation, "pwd", "first", "last", organisation);
+    userService.create("stream2" + organisation, "pwd", "first", "last", organisation);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .queryParam("organisation", organisation)
+    .when()
+        .get("/users/stream")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .contentType("application/x-ndjson")
+        .body(matchesPattern("\\{[^\n]*stream1[^\n]*}\n\\{[^\n]*stream2[^\n]*}\n"));
+    //@formatter:on
+  }
+
+  @DisplayName("bulk create should reject rows that a single create would reject")
+  @Test
+  public void createAll_shouldValidateRowsLikeCreate() {
+    var username = "valid" + System.nanoTime();
+    var requests = List.of(
+        new CreateUserRequest(username, "password1", "first", "last", "Bulk"),
+        new CreateUserRequest(username + "-x", "password1", "first", "last", "Bulk"),
+        new CreateUserRequest(username + "y", "short", "first", "last", "Bulk"));
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .contentType(ContentType.JSON)
+        .body(requests)
+    .when()
+        .post("/users/bulk")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("status", contains("CREATED", "INVALID", "INVALID"))
+        .body("[1].message", containsString("username"))
+        .body("[2].message", containsString("password"));
+    //@formatter:on
+  }
+}
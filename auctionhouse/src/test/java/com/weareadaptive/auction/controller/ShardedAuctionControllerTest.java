@@ -0,0 +1,117 @@
+package com.weareadaptive.auction.controller;
+
+import static io.restassured.RestAssured.given;
+import static java.lang.String.valueOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.datasource.ShardRouting;
+import com.weareadaptive.auction.model.Bid;
+import com.weareadaptive.auction.service.AuctionLotService;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+public class ShardedAuctionControllerTest extends IntegrationTest {
+  @Container
+  public static PostgreSQLContainer<?> shard0 =
+      new PostgreSQLContainer<>("postgres:13.2")
+          .withUsername("testUsername")
+          .withPassword("testPassword");
+
+  @Container
+  public static PostgreSQLContainer<?> shard1 =
+      new PostgreSQLContainer<>("postgres:13.2")
+          .withUsername("testUsername")
+          .withPassword("testPassword");
+
+  @Autowired
+  private AuctionLotService auctionLotService;
+  @Autowired
+  private ShardRouting shardRouting;
+
+  @DynamicPropertySource
+  public static void shardProperties(@NotNull DynamicPropertyRegistry registry) {
+    registry.add("spring.jpa.open-in-view", () -> "false");
+    registry.add("auction.sharding.shards[0].url", shard0::getJdbcUrl);
+    registry.add("auction.sharding.shards[0].username", shard0::getUsername);
+    registry.add("auction.sharding.shards[0].password", shard0::getPassword);
+    registry.add("auction.sharding.shards[1].url", shard1::getJdbcUrl);
+    registry.add("auction.sharding.shards[1].username", shard1::getUsername);
+    registry.add("auction.sharding.shards[1].password", shard1::getPassword);
+  }
+
+  @DisplayName("Get all should merge the lots of every shard")
+  @Test
+  public void getAll_shouldMergeLotsFromAllShards() {
+    var owner = testData.user1();
+    var first = auctionLotService.create(owner.getUsername(), "SHARDA", 1.00, 10);
+    var second = auctionLotService.create(owner.getUsername(), "SHARDB", 1.00, 10);
+
+    assertNotEquals(shardRouting.shardOf(first.getId()), shardRouting.shardOf(second.getId()));
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("id", hasItems(first.getId(), second.getId()));
+    //@formatter:on
+  }
+
+  @DisplayName("Close should settle the bids on the shard of the lot")
+  @Test
+  public void close_shouldSettleBidsOnTheLotShard() {
+    var owner = testData.user1();
+    for (int i = 0; i < shardRouting.getShardCount(); i++) {
+      var auctionLot = auctionLotService.create(owner.getUsername(), "SHARD", 2.50, 10);
+      auctionLotService.bid(auctionLot.getId(), 4, 3.00, testData.user2().getUsername());
+      auctionLotService.bid(auctionLot.getId(), 8, 4.00, testData.user3().getUsername());
+
+      //@formatter:off
+      given()
+          .baseUri(uri)
+          .header(AUTHORIZATION, testData.getToken(owner))
+          .pathParam("id", auctionLot.getId())
+      .when()
+          .post("/auctions/{id}/close")
+      .then()
+          .statusCode(HttpStatus.OK.value())
+          .body("winningBids.size()", equalTo(2))
+          .body("winningBids[0].userId", equalTo(testData.user3().getId()))
+          .body("winningBids[0].state", equalTo(valueOf(Bid.State.WIN)))
+          .body("winningBids[1].winQuantity", equalTo(2))
+          .body("totalSoldQuantity", equalTo(10));
+      //@formatter:on
+    }
+  }
+
+  @DisplayName("Get all since version should be rejected since versions are per shard")
+  @Test
+  public void getAllSinceVersion_shouldBeRejected() {
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .queryParam("sinceVersion", 0)
+    .when()
+        .get("/auctions")
+    .then()
+        .statusCode(HttpStatus.BAD_REQUEST.value())
+        .body("message", containsString("not ordered across shards"));
+    //@formatter:on
+  }
+}
@@ -6,7 +6,9 @@ import static java.lang.String.format;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.LINK;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -14,13 +16,17 @@ import static org.springframework.http.HttpStatus.NO_CONTENT;
 
 import com.github.javafaker.Faker;
 import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.StatementCounter;
 import com.weareadaptive.auction.TestData;
 import com.weareadaptive.auction.controller.dto.CreateUserRequest;
 import com.weareadaptive.auction.controller.dto.UpdateUserRequest;
+import com.weareadaptive.auction.service.UserService;
 import io.restassured.http.ContentType;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -30,6 +36,10 @@ import org.testcontainers.junit.jupiter.Container;
 public class UserControllerTest extends IntegrationTest {
   public static final int INVALID_USER_ID = 99999;
   private final Faker faker = new Faker();
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private StatementCounter statementCounter;
 
   @Container
   public static PostgreSQLContainer<?> postgreSQL =
@@ -42,6 +52,9 @@ public class UserControllerTest extends IntegrationTest {
     registry.add("spring.datasource.url", postgreSQL::getJdbcUrl);
     registry.add("spring.datasource.username", postgreSQL::getUsername);
     registry.add("spring.datasource.password", postgreSQL::getPassword);
+    registry.add("auction.datasource.replica.url", () -> replicaUrl(postgreSQL.getJdbcUrl()));
+    registry.add("auction.datasource.replica.username", postgreSQL::getUsername);
+    registry.add("auction.datasource.replica.password", postgreSQL::getPassword);
   }
 
   @DisplayName("create should return a bad request when the username is duplicated")
@@ -95,6 +108,123 @@ public class UserControllerTest extends IntegrationTest {
         //@formatter:on
   }
 
+  @DisplayName("bulk create should report the outcome of every row")
+  @Test
+  public void createAll_shouldReportEveryRow() {
+    var username = "bulk" + System.nanoTime();
+    var requests = List.of(
+        new CreateUserRequest(username, "password1", "first", "last", "Bulk"),
+        new CreateUserRequest(testData.user1().getUsername(), "password1", "first", "last",
+            "Bulk"),
+        new CreateUserRequest(username + "x", "password1", " ", "last", "Bulk"),
+        new CreateUserRequest(username, "password1", "first", "last", "Bulk"),
+        new CreateUserRequest(username + "-y", "password1", "first", "last", "Bulk"),
+        new CreateUserRequest(username + "z", "short", "first", "last", "Bulk"));
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .contentType(ContentType.JSON)
+        .body(requests)
+    .when()
+        .post("/users/bulk")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("size()", equalTo(6))
+        .body("[0].status", equalTo("CREATED"))
+        .body("[0].id", greaterThan(0))
+        .body("[1].status", equalTo("DUPLICATE"))
+        .body("[2].status", equalTo("INVALID"))
+        .body("[2].message", containsString("firstName"))
+        .body("[3].status", equalTo("DUPLICATE"))
+        .body("[3].row", equalTo(3))
+        .body("[4].status", equalTo("INVALID"))
+        .body("[4].message", containsString("username"))
+        .body("[5].status", equalTo("INVALID"))
+        .body("[5].message", containsString("password"));
+    //@formatter:on
+  }
+
+  @DisplayName("getAll should page users by id and link to the next page")
+  @Test
+  public void getAll_shouldReturnKeysetPage() {
+    var organisation = "Keyset " + System.nanoTime();
+    var first = userService.create("keyset1" + organisation, "pwd", "first", "last", organisation);
+    var second = userService.create("keyset2" + organisation, "pwd", "first", "last", organisation);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .queryParam("organisation", organisation)
+        .queryParam("limit", 1)
+    .when()
+        .get("/users")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .header(LINK, containsString("afterId=" + first.getId()))
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(first.getId()));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .queryParam("organisation", organisation)
+        .queryParam("afterId", first.getId())
+        .queryParam("limit", 1)
+    .when()
+        .get("/users")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(second.getId()));
+    //@formatter:on
+  }
+
+  @DisplayName("getAll should read a page in one statement whatever its size")
+  @Test
+  public void getAll_shouldReadPageInOneStatement() {
+    var limits = new int[] {1, 1, 50};
+    for (int i = 0; i < limits.length; i++) {
+      //@formatter:off
+      given()
+          .baseUri(uri)
+          .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+          .queryParam("limit", limits[i])
+      .when()
+          .get("/users")
+      .then()
+          .statusCode(HttpStatus.OK.value());
+      //@formatter:on
+      // The first request loads the admin into the user cache.
+      if (i > 0) {
+        statementCounter.assertAtMost("GET /users", 1);
+      }
+    }
+  }
+
+  @DisplayName("stream should write the filtered users as NDJSON")
+  @Test
+  public void stream_shouldWriteUsersAsNdjson() {
+    var organisation = "Stream " + System.nanoTime();
+    userService.create("stream1" + organisation, "pwd", "first", "last", organisation);
+    userService.create("stream2" + organisation, "pwd", "first", "last", organisation);
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, ADMIN_AUTH_TOKEN)
+        .queryParam("organisation", organisation)
+    .when()
+        .get("/users/stream")
+    .then()
+        .statusCode(HttpStatus.OK.value())
+        .contentType("application/x-ndjson")
+        .body(matchesPattern("\\{[^\n]*stream1[^\n]*}\n\\{[^\n]*stream2[^\n]*}\n"));
+    //@formatter:on
+  }
+
   @DisplayName("get should when return 404 when user doesn't")
   @Test
   public void shouldReturn404WhenUserDontExist() {
@@ -0,0 +1,149 @@
+package com.weareadaptive.auction.idempotency;
+
+import static com.weareadaptive.auction.idempotency.IdempotencyFilter.IDEMPOTENCY_KEY;
+import static com.weareadaptive.auction.idempotency.IdempotencyFilter.REPLAYED;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+import com.weareadaptive.auction.IntegrationTest;
+import com.weareadaptive.auction.controller.dto.CreateAuctionRequest;
+import com.weareadaptive.auction.model.StoredResponse;
+import com.weareadaptive.auction.repository.IdempotencyRepository;
+import io.restassured.http.ContentType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+public class JdbcIdempotencyRepositoryTest extends IntegrationTest {
+  private static final Duration TTL = Duration.ofHours(24);
+
+  @Container
+  public static PostgreSQLContainer<?> postgreSQL =
+      new PostgreSQLContainer<>("postgres:13.2")
+          .withUsername("testUsername")
+          .withPassword("testPassword");
+
+  @Autowired
+  private IdempotencyRepository idempotencyRepository;
+  @Autowired
+  private DataSource dataSource;
+
+  @DynamicPropertySource
+  public static void postgresProperties(@NotNull DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgreSQL::getJdbcUrl);
+    registry.add("spring.datasource.username", postgreSQL::getUsername);
+    registry.add("spring.datasource.password", postgreSQL::getPassword);
+  }
+
+  @DisplayName("claim should hold a key until it expires, then let a new request take it over")
+  @Test
+  public void claim_shouldTakeOverExpiredKeysOnly() {
+    var username = testData.user1().getUsername();
+    var key = UUID.randomUUID().toString();
+
+    assertTrue(claim(username, key, "first"));
+    assertFalse(claim(username, key, "second"));
+    idempotencyRepository.complete(username, key,
+        new StoredResponse("/auctions", "first", 201, null, new byte[0]));
+    assertFalse(claim(username, key, "second"));
+    assertEquals("first", idempotencyRepository.findCompleted(username, key)
+        .orElseThrow().requestHash());
+
+    expire(username, key);
+    assertTrue(claim(username, key, "second"));
+    assertTrue(idempotencyRepository.findCompleted(username, key).isEmpty());
+  }
+
+  @DisplayName("A retry should replay the response, or conflict while the first run is going")
+  @Test
+  public void create_shouldReplayOrConflictOnRepeatedKey() {
+    var createRequest = new CreateAuctionRequest("JIDEM", 1.50, 20);
+    var key = UUID.randomUUID().toString();
+    var username = testData.user1().getUsername();
+    claim(username, key, "in-progress");
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .body(createRequest)
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(CONFLICT.value());
+    //@formatter:on
+
+    expire(username, key);
+
+    //@formatter:off
+    int id =
+        given()
+            .baseUri(uri)
+            .header(AUTHORIZATION, testData.user1Token())
+            .header(IDEMPOTENCY_KEY, key)
+            .contentType(ContentType.JSON)
+            .body(createRequest)
+        .when()
+            .post("/auctions")
+        .then()
+            .statusCode(CREATED.value())
+            .extract().path("id");
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .body(createRequest)
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(CREATED.value())
+        .header(REPLAYED, "true")
+        .body("id", equalTo(id));
+
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, testData.user1Token())
+        .header(IDEMPOTENCY_KEY, key)
+        .contentType(ContentType.JSON)
+        .body(new CreateAuctionRequest("JIDEM", 1.50, 30))
+    .when()
+        .post("/auctions")
+    .then()
+        .statusCode(UNPROCESSABLE_ENTITY.value())
+        .body("message", containsString("another request body"));
+    //@formatter:on
+  }
+
+  private boolean claim(String username, String key, String requestHash) {
+    return idempotencyRepository.claim(username, key, "/auctions", requestHash,
+        Instant.now().minus(TTL));
+  }
+
+  private void expire(String username, String key) {
+    new JdbcTemplate(dataSource).update("UPDATE idempotency_key "
+            + "SET created_at = now() - interval '2 days' "
+            + "WHERE username = ? AND idempotency_key = ?", username, key);
+  }
+}
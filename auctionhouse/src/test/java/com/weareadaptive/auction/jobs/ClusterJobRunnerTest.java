@@ -0,0 +1,117 @@
+package com.weareadaptive.auction.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.weareadaptive.auction.IntegrationTest;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+public class ClusterJobRunnerTest extends IntegrationTest {
+  private static final int PARTITIONS = 4;
+
+  @Container
+  public static PostgreSQLContainer<?> postgreSQL =
+      new PostgreSQLContainer<>("postgres:13.2")
+          .withUsername("testUsername")
+          .withPassword("testPassword");
+
+  @Autowired
+  private ClusterJobRunner clusterJobRunner;
+  @Autowired
+  private ApplicationContext applicationContext;
+  @Autowired
+  private DataSource dataSource;
+
+  @DynamicPropertySource
+  public static void postgresProperties(@NotNull DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgreSQL::getJdbcUrl);
+    registry.add("spring.datasource.username", postgreSQL::getUsername);
+    registry.add("spring.datasource.password", postgreSQL::getPassword);
+  }
+
+  @DisplayName("Concurrent nodes should run each partition once per interval")
+  @Test
+  public void runDue_shouldRunEachPartitionOncePerInterval() {
+    var job = new CountingJob("once-per-interval");
+    var otherNode = new ClusterJobRunner(
+        dataSource, applicationContext.getBeanProvider(ClusterJob.class));
+
+    CompletableFuture.allOf(
+        CompletableFuture.runAsync(() -> clusterJobRunner.runDue(job)),
+        CompletableFuture.runAsync(() -> otherNode.runDue(job))).join();
+    clusterJobRunner.runDue(job);
+
+    for (int partition = 0; partition < PARTITIONS; partition++) {
+      assertEquals(1, job.runs(partition));
+    }
+  }
+
+  @DisplayName("A partition leased by a crashed node should be picked up once its lease is gone")
+  @Test
+  public void runDue_shouldFailOverWhenLeaseIsReleased() throws SQLException {
+    var job = new CountingJob("fail-over");
+
+    try (var crashedNode = DriverManager.getConnection(
+        postgreSQL.getJdbcUrl(), postgreSQL.getUsername(), postgreSQL.getPassword());
+         var statement = crashedNode.prepareStatement("SELECT pg_advisory_lock(?, 0)")) {
+      statement.setInt(1, job.name().hashCode());
+      statement.executeQuery().close();
+
+      clusterJobRunner.runDue(job);
+      assertEquals(0, job.runs(0));
+      assertEquals(1, job.runs(1));
+    }
+
+    clusterJobRunner.runDue(job);
+    assertEquals(1, job.runs(0));
+    assertEquals(1, job.runs(1));
+  }
+
+  private static final class CountingJob implements ClusterJob {
+    private final String name;
+    private final ConcurrentHashMap<Integer, AtomicInteger> runs = new ConcurrentHashMap<>();
+
+    private CountingJob(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public Duration interval() {
+      return Duration.ofHours(1);
+    }
+
+    @Override
+    public int partitions() {
+      return PARTITIONS;
+    }
+
+    @Override
+    public void run(JobPartition partition) {
+      runs.computeIfAbsent(partition.index(), index -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int runs(int partition) {
+      var count = runs.get(partition);
+      return count == null ? 0 : count.get();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.weareadaptive.auction.security;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+import com.weareadaptive.auction.TestData;
+import com.weareadaptive.auction.controller.dto.BidAuctionRequest;
+import com.weareadaptive.auction.service.AuctionLotService;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@ActiveProfiles("in-memory")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "auction.rate-limit.bid.capacity=2",
+    "auction.rate-limit.bid.per-second=0.01",
+    "auction.rate-limit.failed-authentication.capacity=3",
+    "auction.rate-limit.failed-authentication.per-second=4"})
+public class RateLimitTest {
+  @Autowired
+  private TestData testData;
+  @Autowired
+  private AuctionLotService auctionLotService;
+  @Autowired
+  private RateLimiter rateLimiter;
+  @LocalServerPort
+  private int port;
+  private String uri;
+
+  @BeforeEach
+  public void initialiseRestAssuredMockMvcStandalone() {
+    uri = "http://localhost:" + port;
+  }
+
+  @Test
+  public void shouldRejectBidsBeyondTheBurstWithRetryAfter() {
+    var auctionLot = auctionLotService.create(
+        testData.user1().getUsername(), "LIMIT", 1.00, 10);
+    var bidder = testData.getToken(testData.user2());
+
+    for (int i = 0; i < 2; i++) {
+      bid(auctionLot.getId(), bidder, HttpStatus.OK);
+    }
+
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, bidder)
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionLot.getId())
+        .body(new BidAuctionRequest(1, 2.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+        .header(RETRY_AFTER, notNullValue())
+        .header(RETRY_AFTER, not("0"));
+    //@formatter:on
+
+    bid(auctionLot.getId(), testData.getToken(testData.user3()), HttpStatus.OK);
+  }
+
+  @Test
+  public void shouldLimitFailedAuthenticationByAddressNotByClaimedUser()
+      throws InterruptedException {
+    var auctionLot = auctionLotService.create(
+        testData.user1().getUsername(), "SPOOF", 1.00, 10);
+    var victim = testData.user4();
+    var forged = "Bearer " + victim.getUsername() + ":wrongpassword";
+
+    for (int i = 0; i < 3; i++) {
+      bid(auctionLot.getId(), forged, HttpStatus.UNAUTHORIZED);
+    }
+    bid(auctionLot.getId(), forged, HttpStatus.TOO_MANY_REQUESTS);
+
+    // Lets the address recover, the other tests share it.
+    Thread.sleep(1000);
+    for (int i = 0; i < 2; i++) {
+      bid(auctionLot.getId(), testData.getToken(victim), HttpStatus.OK);
+    }
+  }
+
+  @Test
+  public void shouldEvictBucketsOnceFull() throws InterruptedException {
+    var before = rateLimiter.size();
+    assertEquals(0, rateLimiter.tryAcquire(RateLimiter.Endpoint.CREATE_AUCTION, "idle-user"));
+
+    rateLimiter.sweep();
+    assertEquals(before + 1, rateLimiter.size());
+
+    Thread.sleep(200);
+    rateLimiter.sweep();
+    assertEquals(before, rateLimiter.size());
+  }
+
+  private void bid(int auctionId, String token, HttpStatus expected) {
+    //@formatter:off
+    given()
+        .baseUri(uri)
+        .header(AUTHORIZATION, token)
+        .contentType(ContentType.JSON)
+        .pathParam("id", auctionId)
+        .body(new BidAuctionRequest(1, 2.00))
+    .when()
+        .post("/auctions/{id}/bid")
+    .then()
+        .statusCode(expected.value());
+    //@formatter:on
+  }
+}